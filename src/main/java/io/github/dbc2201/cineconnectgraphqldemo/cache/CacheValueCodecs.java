@@ -0,0 +1,149 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService.PlatformStats;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieSnapshot;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Codecs for the values kept in the Redis caches.
+ *
+ * Type IDs are part of the stored format: add new types with new IDs and never
+ * renumber. Fields are written in declaration order.
+ */
+public final class CacheValueCodecs {
+
+    public static final int MOVIE_SNAPSHOT_TYPE_ID = 1;
+    public static final int PLATFORM_STATS_TYPE_ID = 2;
+    public static final int BOOLEAN_TYPE_ID = 3;
+
+    private CacheValueCodecs() {
+    }
+
+    public static List<CompactCodec<?>> all() {
+        return List.of(new MovieSnapshotCodec(), new PlatformStatsCodec(), new BooleanCodec());
+    }
+
+    static final class MovieSnapshotCodec implements CompactCodec<MovieSnapshot> {
+
+        @Override
+        public int typeId() {
+            return MOVIE_SNAPSHOT_TYPE_ID;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<MovieSnapshot> type() {
+            return MovieSnapshot.class;
+        }
+
+        @Override
+        public void write(MovieSnapshot movie, CompactWriter out) {
+            out.writeNullableLong(movie.id())
+                .writeString(movie.title())
+                .writeString(movie.originalTitle())
+                .writeNullableInt(movie.releaseYear())
+                .writeNullableInt(movie.durationMinutes())
+                .writeString(movie.synopsis())
+                .writeString(movie.posterUrl())
+                .writeString(movie.backdropUrl())
+                .writeString(movie.language())
+                .writeNullableInt(movie.tmdbId())
+                .writeString(movie.imdbId())
+                .writeIntList(movie.genreIds())
+                .writeIntList(movie.moodIds())
+                .writeInstant(movie.createdAt())
+                .writeInstant(movie.updatedAt());
+        }
+
+        @Override
+        public MovieSnapshot read(CompactReader in, int version) {
+            return new MovieSnapshot(
+                in.readNullableLong(),
+                in.readString(),
+                in.readString(),
+                in.readNullableInt(),
+                in.readNullableInt(),
+                in.readString(),
+                in.readString(),
+                in.readString(),
+                in.readString(),
+                in.readNullableInt(),
+                in.readString(),
+                in.readIntList(),
+                in.readIntList(),
+                in.readInstant(),
+                in.readInstant());
+        }
+    }
+
+    static final class PlatformStatsCodec implements CompactCodec<PlatformStats> {
+
+        @Override
+        public int typeId() {
+            return PLATFORM_STATS_TYPE_ID;
+        }
+
+        // Version 2 added computedAt
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public Class<PlatformStats> type() {
+            return PlatformStats.class;
+        }
+
+        @Override
+        public void write(PlatformStats stats, CompactWriter out) {
+            out.writeLong(stats.totalUsers())
+                .writeLong(stats.totalMovies())
+                .writeLong(stats.totalReviews())
+                .writeLong(stats.scheduledParties())
+                .writeLong(stats.liveParties())
+                .writeInstant(stats.computedAt());
+        }
+
+        @Override
+        public PlatformStats read(CompactReader in, int version) {
+            return new PlatformStats(in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                // Unknown age: treated as stale, so it is refreshed on first use
+                version >= 2 ? in.readInstant() : Instant.EPOCH);
+        }
+    }
+
+    // Negative cache tombstones (see NegativeLookupCache)
+    static final class BooleanCodec implements CompactCodec<Boolean> {
+
+        @Override
+        public int typeId() {
+            return BOOLEAN_TYPE_ID;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<Boolean> type() {
+            return Boolean.class;
+        }
+
+        @Override
+        public void write(Boolean value, CompactWriter out) {
+            out.writeByte(value ? 1 : 0);
+        }
+
+        @Override
+        public Boolean read(CompactReader in, int version) {
+            return in.readByte() == 1;
+        }
+    }
+}
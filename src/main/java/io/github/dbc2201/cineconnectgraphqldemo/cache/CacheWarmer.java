@@ -0,0 +1,90 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import io.github.dbc2201.cineconnectgraphqldemo.config.RedisConfig;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieService;
+import io.github.dbc2201.cineconnectgraphqldemo.service.PlatformStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the caches before the instance starts taking traffic.
+ *
+ * Runs as an ApplicationRunner, so the readiness state (and the {@code health} query)
+ * only turns UP once it has finished. The most reviewed recent movies and the platform
+ * stats are loaded in parallel with batched queries. Entries already in Redis are only
+ * copied into this node's near cache.
+ *
+ * Warm-up is best effort: failures are logged, and after the timeout the instance
+ * becomes ready anyway while the remaining work finishes in the background.
+ */
+public class CacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final MovieService movieService;
+    private final PlatformStatsService platformStatsService;
+    private final CacheManager cacheManager;
+    private final int topMovies;
+    private final Duration recentWindow;
+    private final Duration timeout;
+
+    public CacheWarmer(MovieService movieService, PlatformStatsService platformStatsService,
+                       CacheManager cacheManager, int topMovies, Duration recentWindow, Duration timeout) {
+        this.movieService = movieService;
+        this.platformStatsService = platformStatsService;
+        this.cacheManager = cacheManager;
+        this.topMovies = topMovies;
+        this.recentWindow = recentWindow;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cache-warmup-", 0).factory());
+        try {
+            CompletableFuture.allOf(
+                CompletableFuture.runAsync(this::warmMovies, executor),
+                CompletableFuture.runAsync(platformStatsService::getPlatformStats, executor)
+            ).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Cache warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up did not finish within {}, continuing startup", timeout);
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up failed, continuing startup: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Does not wait: unfinished tasks complete in the background
+            executor.shutdown();
+        }
+    }
+
+    private void warmMovies() {
+        List<Long> ids = movieService.findMostReviewedIds(Instant.now().minus(recentWindow), topMovies);
+        Cache movies = cacheManager.getCache(RedisConfig.CACHE_MOVIES);
+        // A hit fills the near cache from Redis; only movies missing from both are loaded
+        Set<Long> missing = ids.stream()
+            .filter(id -> movies.get(id) == null)
+            .collect(Collectors.toSet());
+        movieService.findSnapshotsByIdIn(missing).forEach(movie -> movies.put(movie.id(), movie));
+        log.debug("Warmed {} movies, {} loaded from the database", ids.size(), missing.size());
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+/**
+ * Binary layout of one cached value type (see {@link CompactRedisSerializer}).
+ *
+ * The type ID is written into every entry and must stay stable: never reuse the ID of a
+ * removed type. When the layout changes, bump the version and keep reading the older
+ * versions, so entries written before a deploy remain valid until they expire.
+ */
+public interface CompactCodec<T> {
+
+    int typeId();
+
+    int version();
+
+    Class<T> type();
+
+    void write(T value, CompactWriter out);
+
+    /**
+     * Read a value written with the given version (never newer than {@link #version()}).
+     */
+    T read(CompactReader in, int version);
+}
@@ -0,0 +1,108 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads values written by {@link CompactWriter}, in the same order.
+ *
+ * Malformed or truncated input fails with an IllegalArgumentException.
+ */
+public final class CompactReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    public CompactReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public int readByte() {
+        if (position >= bytes.length) {
+            throw new IllegalArgumentException("Truncated cache value");
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    public byte[] readRemaining() {
+        byte[] remaining = Arrays.copyOfRange(bytes, position, bytes.length);
+        position = bytes.length;
+        return remaining;
+    }
+
+    public long readUnsignedVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    public long readLong() {
+        long value = readUnsignedVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readInt() {
+        return Math.toIntExact(readLong());
+    }
+
+    public Long readNullableLong() {
+        return readPresent() ? readLong() : null;
+    }
+
+    public Integer readNullableInt() {
+        return readPresent() ? readInt() : null;
+    }
+
+    public String readString() {
+        long lengthPlusOne = readUnsignedVarLong();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        int length = checkedLength(lengthPlusOne - 1);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public List<Integer> readIntList() {
+        int size = checkedLength(readUnsignedVarLong());
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readInt());
+        }
+        return values;
+    }
+
+    public Instant readInstant() {
+        if (!readPresent()) {
+            return null;
+        }
+        long epochSecond = readLong();
+        return Instant.ofEpochSecond(epochSecond, readUnsignedVarLong());
+    }
+
+    private boolean readPresent() {
+        int marker = readByte();
+        if (marker > 1) {
+            throw new IllegalArgumentException("Invalid presence marker: " + marker);
+        }
+        return marker == 1;
+    }
+
+    // Every element takes at least one byte, so a length beyond the input is corrupt
+    private int checkedLength(long length) {
+        if (length > bytes.length - position) {
+            throw new IllegalArgumentException("Truncated cache value");
+        }
+        return (int) length;
+    }
+}
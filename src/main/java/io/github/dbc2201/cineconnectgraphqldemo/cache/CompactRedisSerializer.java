@@ -0,0 +1,94 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis value serializer writing cached values in a compact binary format.
+ *
+ * Every entry starts with a format marker, the type ID and the layout version of its
+ * {@link CompactCodec}, followed by the fields without names or class descriptors.
+ * Types without a codec are written with JDK serialization behind type ID 0, and
+ * entries from before this format (plain JDK streams) are still read.
+ *
+ * An entry whose type or version this node does not know (written by a newer deploy)
+ * is treated as a cache miss rather than an error.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactRedisSerializer.class);
+
+    // Cannot start a JDK serialization stream (0xACED), so old entries are told apart
+    static final int FORMAT_MARKER = 0xC7;
+    private static final int JDK_TYPE_ID = 0;
+
+    private final Map<Class<?>, CompactCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Integer, CompactCodec<?>> codecsById = new HashMap<>();
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    public CompactRedisSerializer(List<CompactCodec<?>> codecs) {
+        for (CompactCodec<?> codec : codecs) {
+            if (codec.typeId() <= JDK_TYPE_ID) {
+                throw new IllegalArgumentException("Codec type IDs must be positive: " + codec.type().getName());
+            }
+            if (codecsById.putIfAbsent(codec.typeId(), codec) != null
+                || codecsByType.putIfAbsent(codec.type(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate codec for type ID " + codec.typeId()
+                    + " or type " + codec.type().getName());
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        CompactCodec<?> codec = codecsByType.get(value.getClass());
+        CompactWriter out = new CompactWriter(128).writeByte(FORMAT_MARKER);
+        if (codec == null) {
+            return out.writeUnsignedVarLong(JDK_TYPE_ID).writeBytes(jdkSerializer.serialize(value)).toByteArray();
+        }
+        out.writeUnsignedVarLong(codec.typeId()).writeUnsignedVarLong(codec.version());
+        write(codec, value, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) != FORMAT_MARKER) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        try {
+            CompactReader in = new CompactReader(bytes);
+            in.readByte();
+            int typeId = Math.toIntExact(in.readUnsignedVarLong());
+            if (typeId == JDK_TYPE_ID) {
+                return jdkSerializer.deserialize(in.readRemaining());
+            }
+            CompactCodec<?> codec = codecsById.get(typeId);
+            int version = Math.toIntExact(in.readUnsignedVarLong());
+            if (codec == null || version > codec.version()) {
+                log.debug("Ignoring cache entry with unknown type {} version {}", typeId, version);
+                return null;
+            }
+            return codec.read(in, version);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new SerializationException("Cannot read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private static <T> void write(CompactCodec<T> codec, Object value, CompactWriter out) {
+        codec.write(codec.type().cast(value), out);
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Appends values in the compact cache format to a growable byte array.
+ *
+ * Integers are variable-length (zigzag for signed values), so small IDs, counts and years
+ * take one or two bytes. Nullable values are preceded by a presence byte; strings and
+ * lists by their length.
+ */
+public final class CompactWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public CompactWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public CompactWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public CompactWriter writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    public CompactWriter writeUnsignedVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        return writeByte((int) value);
+    }
+
+    public CompactWriter writeLong(long value) {
+        return writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public CompactWriter writeNullableLong(Long value) {
+        return value != null ? writeByte(1).writeLong(value) : writeByte(0);
+    }
+
+    public CompactWriter writeNullableInt(Integer value) {
+        return value != null ? writeByte(1).writeLong(value) : writeByte(0);
+    }
+
+    /**
+     * Length + 1 followed by UTF-8 bytes; a length prefix of 0 means null.
+     */
+    public CompactWriter writeString(String value) {
+        if (value == null) {
+            return writeByte(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return writeUnsignedVarLong(bytes.length + 1L).writeBytes(bytes);
+    }
+
+    public CompactWriter writeIntList(List<Integer> values) {
+        writeUnsignedVarLong(values.size());
+        values.forEach(this::writeLong);
+        return this;
+    }
+
+    public CompactWriter writeInstant(Instant value) {
+        if (value == null) {
+            return writeByte(0);
+        }
+        return writeByte(1).writeLong(value.getEpochSecond()).writeUnsignedVarLong(value.getNano());
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
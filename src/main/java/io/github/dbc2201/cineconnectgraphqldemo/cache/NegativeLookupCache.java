@@ -0,0 +1,55 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Short-lived tombstones for lookups that found nothing, so repeated probes for
+ * non-existent IDs or usernames (e.g. crawlers enumerating them) stop reaching the database.
+ *
+ * Callers must {@link #forget} a key when the entity is created. Evictions go through the
+ * transaction-aware cache manager, so they apply after commit. A lookup racing with the
+ * creation can still leave a stale tombstone, which the short TTL bounds.
+ *
+ * Cache failures are ignored: the lookup then simply goes to the database.
+ */
+public class NegativeLookupCache {
+
+    private static final Logger log = LoggerFactory.getLogger(NegativeLookupCache.class);
+
+    private final Cache cache;
+
+    public NegativeLookupCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public boolean isKnownMissing(String type, Object key) {
+        try {
+            return cache.get(cacheKey(type, key)) != null;
+        } catch (RuntimeException e) {
+            log.debug("Negative cache lookup failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public void markMissing(String type, Object key) {
+        try {
+            cache.put(cacheKey(type, key), Boolean.TRUE);
+        } catch (RuntimeException e) {
+            log.debug("Negative cache store failed: {}", e.getMessage());
+        }
+    }
+
+    public void forget(String type, Object key) {
+        try {
+            cache.evict(cacheKey(type, key));
+        } catch (RuntimeException e) {
+            log.debug("Negative cache eviction failed: {}", e.getMessage());
+        }
+    }
+
+    private static String cacheKey(String type, Object key) {
+        return type + ":" + key;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A {@link RefreshLock} shared by all nodes, held in a Redis key.
+ *
+ * The key expires after the timeout, so a node that dies mid-refresh cannot block the
+ * others for longer than that. Each acquisition stores a fresh token and unlocking only
+ * deletes the key if it still holds that token, so a holder whose lock already expired
+ * cannot release the next holder's lock.
+ *
+ * If Redis cannot be reached the lock is granted: the shared store is then unavailable
+ * too, so each node has to refresh its own copy.
+ */
+public class RedisRefreshLock implements RefreshLock {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRefreshLock.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final StringRedisTemplate redis;
+    private final String key;
+    private final Duration timeout;
+    private volatile String token;
+
+    public RedisRefreshLock(StringRedisTemplate redis, String key, Duration timeout) {
+        this.redis = redis;
+        this.key = key;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public boolean tryLock() {
+        String candidate = UUID.randomUUID().toString();
+        try {
+            if (Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, candidate, timeout))) {
+                token = candidate;
+                return true;
+            }
+            return false;
+        } catch (DataAccessException e) {
+            log.debug("Refresh lock {} unavailable, refreshing locally: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void unlock() {
+        String held = token;
+        if (held != null) {
+            token = null;
+            try {
+                redis.execute(RELEASE_SCRIPT, List.of(key), held);
+            } catch (DataAccessException e) {
+                // The key expires on its own
+                log.debug("Releasing refresh lock {} failed: {}", key, e.getMessage());
+            }
+        }
+    }
+}
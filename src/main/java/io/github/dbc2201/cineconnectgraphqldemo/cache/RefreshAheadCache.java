@@ -0,0 +1,154 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A single expensive value that is recomputed in the background before it goes stale.
+ *
+ * Readers always get the last good value: once it is older than {@code refreshAfter} a
+ * refresh is started and the current value is returned without waiting. Only the very
+ * first read, with nothing stored anywhere, waits for the computation.
+ *
+ * A refresh is single-flight: on each node concurrent readers share one in-flight
+ * refresh, and across nodes the {@link RefreshLock} lets one node recompute while the
+ * others keep serving their value and pick up the new one from the shared store. The
+ * value is also kept in memory, so it is still served if the store is unavailable.
+ * A refreshed value replaces the stored one, so a store that keeps per-node copies must
+ * propagate puts to the other nodes.
+ */
+public class RefreshAheadCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final Cache store;
+    private final Object key;
+    private final Class<T> type;
+    private final Supplier<T> loader;
+    private final Function<T, Instant> computedAt;
+    private final Duration refreshAfter;
+    private final RefreshLock lock;
+    private final Executor executor;
+    private final InstantSource clock;
+
+    private final AtomicReference<T> lastGood = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+    public RefreshAheadCache(Cache store, Object key, Class<T> type, Supplier<T> loader,
+                             Function<T, Instant> computedAt, Duration refreshAfter,
+                             RefreshLock lock, Executor executor, InstantSource clock) {
+        this.store = store;
+        this.key = key;
+        this.type = type;
+        this.loader = loader;
+        this.computedAt = computedAt;
+        this.refreshAfter = refreshAfter;
+        this.lock = lock;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public T get() {
+        T current = latest();
+        if (current == null) {
+            try {
+                return refresh().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        if (isStale(current)) {
+            refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Start a refresh unless one is already running on this node.
+     */
+    CompletableFuture<T> refresh() {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> running = inFlight.compareAndExchange(null, created);
+        if (running != null) {
+            return running;
+        }
+        executor.execute(() -> {
+            try {
+                created.complete(load());
+            } catch (RuntimeException e) {
+                log.warn("Refresh of {} failed, serving the previous value: {}", key, e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.set(null);
+            }
+        });
+        return created;
+    }
+
+    private T load() {
+        boolean locked = lock.tryLock();
+        try {
+            // Another node may have refreshed since this one found the value stale
+            T stored = readStore();
+            if (stored != null && (!isStale(stored) || !locked)) {
+                return remember(stored);
+            }
+            T local = lastGood.get();
+            if (!locked && local != null) {
+                // Another node is recomputing; its result will show up in the store
+                return local;
+            }
+            // Holding the lock, or nothing to serve at all (cold start everywhere)
+            T value = remember(loader.get());
+            writeStore(value);
+            return value;
+        } finally {
+            if (locked) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private T latest() {
+        T stored = readStore();
+        return stored != null ? remember(stored) : lastGood.get();
+    }
+
+    private T remember(T value) {
+        return lastGood.accumulateAndGet(value, (previous, candidate) ->
+            previous == null || computedAt.apply(candidate).isAfter(computedAt.apply(previous)) ? candidate : previous);
+    }
+
+    private boolean isStale(T value) {
+        return computedAt.apply(value).plus(refreshAfter).isBefore(clock.instant());
+    }
+
+    // The store is a cache: if it is unavailable the in-memory value is used
+    private T readStore() {
+        try {
+            return store.get(key, type);
+        } catch (RuntimeException e) {
+            log.debug("Reading {} from the cache failed: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeStore(T value) {
+        try {
+            store.put(key, value);
+        } catch (RuntimeException e) {
+            log.debug("Writing {} to the cache failed: {}", key, e.getMessage());
+        }
+    }
+}
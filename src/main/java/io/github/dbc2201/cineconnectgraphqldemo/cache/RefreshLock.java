@@ -0,0 +1,14 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+/**
+ * Mutual exclusion for a refresh that should run on only one node at a time.
+ */
+public interface RefreshLock {
+
+    /**
+     * Take the lock without waiting; false when another holder has it.
+     */
+    boolean tryLock();
+
+    void unlock();
+}
@@ -0,0 +1,143 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * A cache with an in-process near tier in front of a shared remote (Redis) tier.
+ *
+ * Reads are served from the near tier when possible and fill it from the remote tier
+ * on a miss. Writes go to both tiers; evictions and clears are also announced through
+ * the invalidation publisher, so other nodes drop their near copies (see
+ * {@link TwoTierCacheManager}). A put is a fill (a value loaded after a miss, or warmed at
+ * startup) and is not announced: other nodes either have no copy or hold the same value.
+ * Puts through the {@link #overwriting()} view are announced as well.
+ *
+ * Near entries are shared between threads, so cached values must be immutable.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> near;
+    private final Cache remote;
+    // Receives the key of a changed entry, or null when the whole cache was cleared
+    private final Consumer<String> invalidationPublisher;
+    private final boolean announcePuts;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> near,
+                        Cache remote,
+                        Consumer<String> invalidationPublisher) {
+        this(name, near, remote, invalidationPublisher, false);
+    }
+
+    private TwoTierCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> near,
+                         Cache remote,
+                         Consumer<String> invalidationPublisher,
+                         boolean announcePuts) {
+        this.name = name;
+        this.near = near;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.announcePuts = announcePuts;
+    }
+
+    /**
+     * A view of the same tiers whose puts are announced, for a writer that replaces a
+     * value other nodes may already hold in their near tier.
+     */
+    public TwoTierCache overwriting() {
+        return new TwoTierCache(name, near, remote, invalidationPublisher, true);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return near;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = near.getIfPresent(nearKey(key));
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            near.put(nearKey(key), wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) near.get(nearKey(key), nearKey -> remote.get(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            near.put(nearKey(key), value);
+        } else {
+            near.invalidate(nearKey(key));
+        }
+        if (announcePuts) {
+            invalidationPublisher.accept(nearKey(key));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        near.invalidate(nearKey(key));
+        remote.evict(key);
+        invalidationPublisher.accept(nearKey(key));
+    }
+
+    @Override
+    public void clear() {
+        near.invalidateAll();
+        remote.clear();
+        invalidationPublisher.accept(null);
+    }
+
+    /**
+     * Drop a near entry after another node changed it.
+     */
+    public void evictLocal(String key) {
+        near.invalidate(key);
+    }
+
+    /**
+     * Drop all near entries after another node cleared the cache.
+     */
+    public void clearLocal() {
+        near.invalidateAll();
+    }
+
+    // The remote tier also stores keys as strings, and invalidation messages carry them as text
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager that puts an in-process near tier, sized per cache name, in front of
+ * each Redis cache.
+ *
+ * Every eviction and clear, and every put through an {@link #getOverwritingCache
+ * overwriting} cache, is published on {@link #INVALIDATION_CHANNEL}; each node listens to
+ * it and drops the matching near entries, so a change made through one instance is not
+ * served stale by the others. Plain puts are fills and are not published. Near entries also expire after a
+ * short TTL, which bounds staleness if a message is lost.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidate";
+    private static final String SEPARATOR = "\u0000";
+
+    private final RedisCacheManager remote;
+    private final StringRedisTemplate redis;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> nearCacheSizes;
+    private final long defaultNearCacheSize;
+    private final Duration nearCacheTtl;
+
+    // Lets a node ignore its own messages; its near tier was already updated
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager remote, StringRedisTemplate redis, MeterRegistry meterRegistry,
+                               Map<String, Long> nearCacheSizes, long defaultNearCacheSize, Duration nearCacheTtl) {
+        this.remote = remote;
+        this.redis = redis;
+        this.meterRegistry = meterRegistry;
+        this.nearCacheSizes = Map.copyOf(nearCacheSizes);
+        this.defaultNearCacheSize = defaultNearCacheSize;
+        this.nearCacheTtl = nearCacheTtl;
+    }
+
+    /**
+     * The named cache with announced puts (see {@link TwoTierCache#overwriting()}), for a
+     * component that recomputes a shared value. Unlike {@link #getCache}, it is not transaction-aware.
+     */
+    public Cache getOverwritingCache(String name) {
+        getCache(name);
+        return twoTierCaches.get(name).overwriting();
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return nearCacheSizes.keySet().stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    private TwoTierCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> near = Caffeine.newBuilder()
+            .maximumSize(nearCacheSizes.getOrDefault(name, defaultNearCacheSize))
+            .expireAfterWrite(nearCacheTtl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, near, name + ".near");
+        TwoTierCache cache = new TwoTierCache(name, near, remote.getCache(name), key -> publishInvalidation(name, key));
+        twoTierCaches.put(name, cache);
+        return cache;
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String message = key != null
+            ? String.join(SEPARATOR, nodeId, cacheName, key)
+            : String.join(SEPARATOR, nodeId, cacheName);
+        try {
+            redis.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (DataAccessException e) {
+            log.debug("Cache invalidation broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        TwoTierCache cache = twoTierCaches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            cache.evictLocal(parts[2]);
+        } else {
+            cache.clearLocal();
+        }
+    }
+}
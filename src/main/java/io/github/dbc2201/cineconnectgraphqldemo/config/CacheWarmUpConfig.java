@@ -0,0 +1,33 @@
+package io.github.dbc2201.cineconnectgraphqldemo.config;
+
+import io.github.dbc2201.cineconnectgraphqldemo.cache.CacheWarmer;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieService;
+import io.github.dbc2201.cineconnectgraphqldemo.service.PlatformStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Startup cache warm-up, so a freshly deployed instance does not serve its first
+ * minutes of traffic from cold caches.
+ *
+ * Genres and moods need no warm-up: ReferenceDataRegistry loads them when it is created.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cineconnect.cache.warm-up", name = "enabled", matchIfMissing = true)
+public class CacheWarmUpConfig {
+
+    @Bean
+    public CacheWarmer cacheWarmer(MovieService movieService,
+                                   PlatformStatsService platformStatsService,
+                                   CacheManager cacheManager,
+                                   @Value("${cineconnect.cache.warm-up.top-movies:100}") int topMovies,
+                                   @Value("${cineconnect.cache.warm-up.recent-window:7d}") Duration recentWindow,
+                                   @Value("${cineconnect.cache.warm-up.timeout:30s}") Duration timeout) {
+        return new CacheWarmer(movieService, platformStatsService, cacheManager, topMovies, recentWindow, timeout);
+    }
+}
@@ -1,15 +1,36 @@
 package io.github.dbc2201.cineconnectgraphqldemo.config;
 
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.ReactionTag;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchPartyMovieSuggestion;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchPartyParticipant;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.EntityCache;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.FollowerRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository.MovieGenreId;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository.MovieMoodId;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository.MovieReviewStats;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository.ReviewReactionTag;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.UserCount;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.UserRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.WatchPartyMovieSuggestionRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.WatchPartyParticipantRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.WatchPartyRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.WatchlistRepository;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.BatchLoaderRegistry;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -25,31 +46,164 @@ public class DataLoaderConfig {
 
     public static final String USER_LOADER = "userLoader";
     public static final String MOVIE_LOADER = "movieLoader";
+    public static final String MOVIE_REVIEW_STATS_LOADER = "movieReviewStatsLoader";
+    public static final String MOVIE_GENRE_IDS_LOADER = "movieGenreIdsLoader";
+    public static final String MOVIE_MOOD_IDS_LOADER = "movieMoodIdsLoader";
+    public static final String REVIEW_REACTION_TAGS_LOADER = "reviewReactionTagsLoader";
+    public static final String FOLLOWER_COUNT_LOADER = "followerCountLoader";
+    public static final String FOLLOWING_COUNT_LOADER = "followingCountLoader";
+    public static final String WATCHLIST_COUNT_LOADER = "watchlistCountLoader";
+    public static final String USER_REVIEW_COUNT_LOADER = "userReviewCountLoader";
+    public static final String PARTY_PARTICIPANTS_LOADER = "partyParticipantsLoader";
+    public static final String PARTY_SUGGESTIONS_LOADER = "partySuggestionsLoader";
+    public static final String FOLLOWED_BY_VIEWER_LOADER = "followedByViewerLoader";
+    public static final String VIEWER_PARTICIPATION_LOADER = "viewerParticipationLoader";
+
+    /**
+     * Key for DataLoaders whose answer depends on the authenticated user,
+     * e.g. "does the viewer follow user X".
+     */
+    public record ViewerScopedKey(Long viewerId, Long targetId) {
+    }
 
     public DataLoaderConfig(BatchLoaderRegistry registry,
                             UserRepository userRepository,
-                            MovieRepository movieRepository) {
+                            MovieRepository movieRepository,
+                            ReviewRepository reviewRepository,
+                            FollowerRepository followerRepository,
+                            WatchlistRepository watchlistRepository,
+                            WatchPartyParticipantRepository participantRepository,
+                            WatchPartyMovieSuggestionRepository suggestionRepository,
+                            WatchPartyRepository partyRepository,
+                            EntityCache<User> userCache,
+                            EntityCache<Movie> movieCache) {
 
-        // Register User DataLoader
+        // Register User DataLoader (backed by a cross-request cache, only misses hit the database)
         registry.forTypePair(Long.class, User.class)
             .withName(USER_LOADER)
-            .registerMappedBatchLoader((userIds, env) -> {
-                Set<Long> ids = Set.copyOf(userIds);
-                Map<Long, User> usersById = userRepository.findAllByIdIn(ids)
+            .registerMappedBatchLoader((userIds, env) ->
+                Mono.just(userCache.getAll(userIds, ids -> userRepository.findAllByIdIn(ids)
                     .stream()
-                    .collect(Collectors.toMap(User::getId, Function.identity()));
-                return Mono.just(usersById);
-            });
+                    .collect(Collectors.toMap(User::getId, Function.identity())))));
 
-        // Register Movie DataLoader
+        // Register Movie DataLoader (backed by a cross-request cache, only misses hit the database)
         registry.forTypePair(Long.class, Movie.class)
             .withName(MOVIE_LOADER)
+            .registerMappedBatchLoader((movieIds, env) ->
+                Mono.just(movieCache.getAll(movieIds, ids -> movieRepository.findAllByIdIn(ids)
+                    .stream()
+                    .collect(Collectors.toMap(Movie::getId, Function.identity())))));
+
+        // Register Movie review statistics DataLoader.
+        // averageRating and reviewCount share it, so both fields cost one GROUP BY query per request.
+        registry.forTypePair(Long.class, MovieReviewStats.class)
+            .withName(MOVIE_REVIEW_STATS_LOADER)
             .registerMappedBatchLoader((movieIds, env) -> {
-                Set<Long> ids = Set.copyOf(movieIds);
-                Map<Long, Movie> moviesById = movieRepository.findAllByIdIn(ids)
+                Map<Long, MovieReviewStats> statsByMovieId = reviewRepository.findReviewStatsByMovieIdIn(movieIds)
                     .stream()
-                    .collect(Collectors.toMap(Movie::getId, Function.identity()));
-                return Mono.just(moviesById);
+                    .collect(Collectors.toMap(MovieReviewStats::getMovieId, Function.identity()));
+                return Mono.just(statsByMovieId);
             });
+
+        // Register lazy association DataLoaders for Movie and Review (one IN (...) query each).
+        // Movies load only genre and mood IDs; the rows are resolved from ReferenceDataRegistry.
+        registry.<Long, List<Integer>>forName(MOVIE_GENRE_IDS_LOADER)
+            .registerMappedBatchLoader((movieIds, env) ->
+                Mono.just(groupByKey(movieIds, movieRepository.findGenreIdsByMovieIdIn(movieIds),
+                    MovieGenreId::getMovieId, MovieGenreId::getGenreId)));
+
+        registry.<Long, List<Integer>>forName(MOVIE_MOOD_IDS_LOADER)
+            .registerMappedBatchLoader((movieIds, env) ->
+                Mono.just(groupByKey(movieIds, movieRepository.findMoodIdsByMovieIdIn(movieIds),
+                    MovieMoodId::getMovieId, MovieMoodId::getMoodId)));
+
+        registry.<Long, List<ReactionTag>>forName(REVIEW_REACTION_TAGS_LOADER)
+            .registerMappedBatchLoader((reviewIds, env) ->
+                Mono.just(groupByKey(reviewIds, reviewRepository.findReactionTagsByReviewIdIn(reviewIds),
+                    ReviewReactionTag::getReviewId, ReviewReactionTag::getReactionTag)));
+
+        // Register per-user counter DataLoaders (one GROUP BY query per counter)
+        registry.forTypePair(Long.class, Long.class)
+            .withName(FOLLOWER_COUNT_LOADER)
+            .registerMappedBatchLoader((userIds, env) ->
+                Mono.just(toCountMap(userIds, followerRepository.countFollowersByUserIdIn(userIds))));
+
+        registry.forTypePair(Long.class, Long.class)
+            .withName(FOLLOWING_COUNT_LOADER)
+            .registerMappedBatchLoader((userIds, env) ->
+                Mono.just(toCountMap(userIds, followerRepository.countFollowingByUserIdIn(userIds))));
+
+        registry.forTypePair(Long.class, Long.class)
+            .withName(WATCHLIST_COUNT_LOADER)
+            .registerMappedBatchLoader((userIds, env) ->
+                Mono.just(toCountMap(userIds, watchlistRepository.countByUserIdIn(userIds))));
+
+        registry.forTypePair(Long.class, Long.class)
+            .withName(USER_REVIEW_COUNT_LOADER)
+            .registerMappedBatchLoader((userIds, env) ->
+                Mono.just(toCountMap(userIds, reviewRepository.countByUserIdIn(userIds))));
+
+        // Register WatchParty collection DataLoaders (one party_id IN (...) query each)
+        registry.<Long, List<WatchPartyParticipant>>forName(PARTY_PARTICIPANTS_LOADER)
+            .registerMappedBatchLoader((partyIds, env) ->
+                Mono.just(groupByKey(partyIds, participantRepository.findByPartyIdIn(partyIds),
+                    participant -> participant.getParty().getId(), Function.identity())));
+
+        registry.<Long, List<WatchPartyMovieSuggestion>>forName(PARTY_SUGGESTIONS_LOADER)
+            .registerMappedBatchLoader((partyIds, env) ->
+                Mono.just(groupByKey(partyIds, suggestionRepository.findByPartyIdInOrderByVoteCountDesc(partyIds),
+                    suggestion -> suggestion.getParty().getId(), Function.identity())));
+
+        // Register viewer-scoped DataLoaders (one query per viewer, i.e. per request)
+        registry.<ViewerScopedKey, Boolean>forName(FOLLOWED_BY_VIEWER_LOADER)
+            .registerMappedBatchLoader((keys, env) ->
+                Mono.just(resolveForViewer(keys, followerRepository::findFollowingIdsAmong)));
+
+        registry.<ViewerScopedKey, Boolean>forName(VIEWER_PARTICIPATION_LOADER)
+            .registerMappedBatchLoader((keys, env) ->
+                Mono.just(resolveForViewer(keys, partyRepository::findParticipatingPartyIds)));
+    }
+
+    /**
+     * Grouped count queries omit users with nothing to count, so every
+     * requested ID starts at zero and is overwritten by the query result.
+     */
+    private static Map<Long, Long> toCountMap(Set<Long> userIds, List<UserCount> counts) {
+        Map<Long, Long> countsByUserId = new HashMap<>();
+        userIds.forEach(id -> countsByUserId.put(id, 0L));
+        counts.forEach(count -> countsByUserId.put(count.getUserId(), count.getCount()));
+        return countsByUserId;
+    }
+
+    /**
+     * Split a combined result back into one list per key (party, movie, review), keeping query order.
+     * Keys without rows get an empty list rather than null.
+     */
+    private static <T, V> Map<Long, List<V>> groupByKey(Set<Long> keys, List<T> rows,
+                                                       Function<T, Long> key, Function<T, V> value) {
+        Map<Long, List<V>> valuesByKey = new HashMap<>();
+        keys.forEach(id -> valuesByKey.put(id, new ArrayList<>()));
+        rows.forEach(row -> valuesByKey.get(key.apply(row)).add(value.apply(row)));
+        return valuesByKey;
+    }
+
+    /**
+     * Group keys by viewer and ask, per viewer, which of the targets match.
+     * A request normally has a single viewer, so this is a single query.
+     */
+    private static Map<ViewerScopedKey, Boolean> resolveForViewer(
+            Set<ViewerScopedKey> keys,
+            BiFunction<Long, Collection<Long>, List<Long>> matchingTargetIds) {
+        Map<Long, Set<Long>> targetIdsByViewer = keys.stream()
+            .collect(Collectors.groupingBy(ViewerScopedKey::viewerId,
+                Collectors.mapping(ViewerScopedKey::targetId, Collectors.toSet())));
+
+        Map<ViewerScopedKey, Boolean> result = new HashMap<>();
+        targetIdsByViewer.forEach((viewerId, targetIds) -> {
+            Set<Long> matches = new HashSet<>(matchingTargetIds.apply(viewerId, targetIds));
+            targetIds.forEach(targetId ->
+                result.put(new ViewerScopedKey(viewerId, targetId), matches.contains(targetId)));
+        });
+        return result;
     }
 }
@@ -0,0 +1,34 @@
+package io.github.dbc2201.cineconnectgraphqldemo.config;
+
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.EntityCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cross-request caches behind the user and movie DataLoaders (see DataLoaderConfig).
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public EntityCache<User> userEntityCache(
+            @Value("${cineconnect.graphql.entity-cache.max-size:1000}") long maxSize,
+            @Value("${cineconnect.graphql.entity-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return new EntityCache<>(User.class, maxSize, ttl, meterRegistry, DataLoaderConfig.USER_LOADER);
+    }
+
+    @Bean
+    public EntityCache<Movie> movieEntityCache(
+            @Value("${cineconnect.graphql.entity-cache.max-size:1000}") long maxSize,
+            @Value("${cineconnect.graphql.entity-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return new EntityCache<>(Movie.class, maxSize, ttl, meterRegistry, DataLoaderConfig.MOVIE_LOADER);
+    }
+}
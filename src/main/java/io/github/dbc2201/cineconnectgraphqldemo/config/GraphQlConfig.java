@@ -3,15 +3,37 @@ package io.github.dbc2201.cineconnectgraphqldemo.config;
 import graphql.language.StringValue;
 import graphql.scalars.ExtendedScalars;
 import graphql.schema.*;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.BatchGraphQlHttpHandler;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.BoundedPersistedQueryCache;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ClientIdentityInterceptor;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.IncrementalDeliveryInterceptor;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.MultipartGraphQlHttpHandler;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.PersistedQueryDocumentProvider;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.QueryCostBudget;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.QueryCostCalculator;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.QueryCostInstrumentation;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.SharedDataLoaderInstrumentation;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.PageInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.graphql.autoconfigure.GraphQlSourceBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 
 /**
- * GraphQL configuration for custom scalars and runtime wiring.
+ * GraphQL configuration for custom scalars, runtime wiring and execution settings.
  */
 @Configuration
 public class GraphQlConfig {
@@ -62,4 +84,82 @@ public class GraphQlConfig {
         return wiringBuilder -> wiringBuilder
             .scalar(INSTANT_SCALAR);
     }
+
+    /**
+     * Cache parsed and validated documents and support Automatic Persisted Queries.
+     * Repeated operations skip parsing/validation, and clients may send only the query hash.
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(
+            @Value("${cineconnect.graphql.document-cache-size:1000}") long documentCacheSize) {
+        PersistedQueryDocumentProvider documentProvider =
+            new PersistedQueryDocumentProvider(new BoundedPersistedQueryCache(documentCacheSize));
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    /**
+     * Identify the calling client (user ID or remote address) for per-client limits.
+     */
+    @Bean
+    public ClientIdentityInterceptor clientIdentityInterceptor() {
+        return new ClientIdentityInterceptor();
+    }
+
+    /**
+     * Reject over-deep or over-expensive operations before execution, and cap the
+     * total cost each client may spend per time window.
+     */
+    @Bean
+    public QueryCostInstrumentation queryCostInstrumentation(
+            @Value("${cineconnect.graphql.max-query-depth:10}") int maxDepth,
+            @Value("${cineconnect.graphql.max-query-cost:5000}") long maxCost,
+            @Value("${cineconnect.graphql.cost-budget:50000}") long costBudget,
+            @Value("${cineconnect.graphql.cost-budget-window:1m}") Duration costBudgetWindow) {
+        return new QueryCostInstrumentation(
+            new QueryCostCalculator(PageInfo.DEFAULT_PAGE_SIZE),
+            new QueryCostBudget(costBudget, costBudgetWindow),
+            maxDepth,
+            maxCost);
+    }
+
+    /**
+     * Incremental delivery: operations using @defer are answered as multipart/mixed,
+     * so the non-deferred part of the response is sent before slow fields resolve.
+     * Ordered ahead of the default /graphql route, which only serves single JSON responses.
+     */
+    @Bean
+    public IncrementalDeliveryInterceptor incrementalDeliveryInterceptor() {
+        return new IncrementalDeliveryInterceptor();
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> multipartGraphQlRouterFunction(
+            @Value("${spring.graphql.http.path:/graphql}") String path,
+            WebGraphQlHandler webGraphQlHandler) {
+        MultipartGraphQlHttpHandler handler = new MultipartGraphQlHttpHandler(webGraphQlHandler);
+        return RouterFunctions.route()
+            .POST(path, MultipartGraphQlHttpHandler.multipartRequest(), handler::handleRequest)
+            .build();
+    }
+
+    /**
+     * Batch endpoint: a JSON array of operations is executed in one HTTP request and the
+     * operations share a DataLoader registry, so loads are deduplicated across the whole page.
+     */
+    @Bean
+    public SharedDataLoaderInstrumentation sharedDataLoaderInstrumentation() {
+        return new SharedDataLoaderInstrumentation();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> batchGraphQlRouterFunction(
+            @Value("${spring.graphql.http.path:/graphql}") String path,
+            @Value("${cineconnect.graphql.batch.max-operations:10}") int maxOperations,
+            WebGraphQlHandler webGraphQlHandler) {
+        BatchGraphQlHttpHandler handler = new BatchGraphQlHttpHandler(webGraphQlHandler, maxOperations);
+        return RouterFunctions.route()
+            .POST(path + "/batch", RequestPredicates.contentType(MediaType.APPLICATION_JSON), handler::handleRequest)
+            .build();
+    }
 }
@@ -0,0 +1,42 @@
+package io.github.dbc2201.cineconnectgraphqldemo.config;
+
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.DataLoaderMetricsInstrumentation;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResolverMetricsInstrumentation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.dataloader.DataLoaderOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+
+/**
+ * Configuration for GraphQL metrics exported through Micrometer
+ * (scraped from /actuator/prometheus).
+ *
+ * - graphql.resolver: per-field latency and call counts, tagged by operation
+ *   (the first max-operation-names distinct names, later ones are tagged "other")
+ * - graphql.dataloader.dispatch / graphql.dataloader.batch.size: DataLoader dispatches and batch sizes
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ResolverMetricsInstrumentation resolverMetricsInstrumentation(
+            MeterRegistry meterRegistry,
+            @Value("${cineconnect.graphql.metrics.max-operation-names:100}") int maxOperationNames) {
+        return new ResolverMetricsInstrumentation(meterRegistry, maxOperationNames);
+    }
+
+    /**
+     * Replaces the auto-configured registry so every DataLoader registered in
+     * DataLoaderConfig is created with the metrics instrumentation.
+     */
+    @Bean
+    public BatchLoaderRegistry batchLoaderRegistry(MeterRegistry meterRegistry) {
+        DataLoaderMetricsInstrumentation instrumentation = new DataLoaderMetricsInstrumentation(meterRegistry);
+        return new DefaultBatchLoaderRegistry(() -> DataLoaderOptions.newOptions()
+            .setInstrumentation(instrumentation)
+            .build());
+    }
+}
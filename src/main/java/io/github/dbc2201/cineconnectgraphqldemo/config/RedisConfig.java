@@ -1,5 +1,11 @@
 package io.github.dbc2201.cineconnectgraphqldemo.config;
 
+import io.github.dbc2201.cineconnectgraphqldemo.cache.CacheValueCodecs;
+import io.github.dbc2201.cineconnectgraphqldemo.cache.CompactRedisSerializer;
+import io.github.dbc2201.cineconnectgraphqldemo.cache.NegativeLookupCache;
+import io.github.dbc2201.cineconnectgraphqldemo.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +14,9 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -17,7 +26,8 @@ import java.util.Map;
 
 /**
  * Redis configuration for caching.
- * Provides caching for frequently accessed data like movies, users, and statistics.
+ * Provides caching for frequently accessed data like movies, users, and statistics,
+ * with an in-process near tier in front of Redis.
  */
 @Configuration
 @EnableCaching
@@ -28,6 +38,7 @@ public class RedisConfig {
     public static final String CACHE_GENRES = "genres";
     public static final String CACHE_MOODS = "moods";
     public static final String CACHE_STATS = "stats";
+    public static final String CACHE_MISSING = "missing";
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -38,14 +49,66 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Two-tier cache manager: an in-process near cache per cache name in front of Redis.
+     * Hot keys are served from memory; changes are broadcast so every node drops its near copy.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${cineconnect.cache.near.movies-size:1000}") long moviesNearSize,
+            @Value("${cineconnect.cache.near.users-size:1000}") long usersNearSize,
+            @Value("${cineconnect.cache.near.genres-size:100}") long genresNearSize,
+            @Value("${cineconnect.cache.near.moods-size:100}") long moodsNearSize,
+            @Value("${cineconnect.cache.near.stats-size:10}") long statsNearSize,
+            @Value("${cineconnect.cache.near.missing-size:10000}") long missingNearSize,
+            @Value("${cineconnect.cache.near.ttl:1m}") Duration nearTtl,
+            @Value("${cineconnect.cache.negative.ttl:60s}") Duration negativeTtl) {
+        Map<String, Long> nearCacheSizes = Map.of(
+            CACHE_MOVIES, moviesNearSize,
+            CACHE_USERS, usersNearSize,
+            CACHE_GENRES, genresNearSize,
+            CACHE_MOODS, moodsNearSize,
+            CACHE_STATS, statsNearSize,
+            CACHE_MISSING, missingNearSize);
+
+        // Transaction-aware: an eviction inside @Transactional is applied after commit,
+        // so a concurrent read cannot cache the old row again in between
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(
+            redisCacheManager(connectionFactory, negativeTtl), stringRedisTemplate, meterRegistry,
+            nearCacheSizes, 1000, nearTtl);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public NegativeLookupCache negativeLookupCache(CacheManager cacheManager) {
+        return new NegativeLookupCache(cacheManager.getCache(CACHE_MISSING));
+    }
+
+    private static RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, Duration negativeTtl) {
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(30))
             .serializeKeysWith(
                 RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
             )
+            // Compact binary values instead of JDK serialization (see CacheValueCodecs)
+            .serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                    new CompactRedisSerializer(CacheValueCodecs.all()))
+            )
             .disableCachingNullValues();
 
         // Custom TTLs for different cache types
@@ -65,13 +128,21 @@ public class RedisConfig {
         cacheConfigurations.put(CACHE_MOODS,
             defaultConfig.entryTtl(Duration.ofHours(24)));
 
-        // Stats cache - short TTL for freshness
+        // Stats cache - refreshed ahead of time by PlatformStatsService; the TTL only
+        // bounds how long the last value survives if no node refreshes it
         cacheConfigurations.put(CACHE_STATS,
-            defaultConfig.entryTtl(Duration.ofMinutes(5)));
+            defaultConfig.entryTtl(Duration.ofHours(1)));
+
+        // Tombstones for lookups that found nothing - short TTL, since the entity may be created
+        cacheConfigurations.put(CACHE_MISSING,
+            defaultConfig.entryTtl(negativeTtl));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigurations)
             .build();
+        // Not a bean itself, so the per-cache configurations are applied here
+        redisCacheManager.initializeCaches();
+        return redisCacheManager;
     }
 }
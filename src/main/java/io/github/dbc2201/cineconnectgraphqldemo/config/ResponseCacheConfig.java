@@ -0,0 +1,48 @@
+package io.github.dbc2201.cineconnectgraphqldemo.config;
+
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResponseCache;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResponseCacheInterceptor;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResponseCachePolicy;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResponseTagInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Operation-level GraphQL response cache stored in Redis.
+ *
+ * Anonymous queries made up only of the configured root fields are answered from the
+ * cache; entries are tagged with the entities they contain and purged when the
+ * services publish changes to them (see EntityChangedEvent).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cineconnect.graphql.response-cache", name = "enabled", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache responseCache(StringRedisTemplate redisTemplate,
+                                       JsonMapper jsonMapper,
+                                       @Value("${cineconnect.graphql.response-cache.ttl:60s}") Duration ttl) {
+        return new ResponseCache(redisTemplate, jsonMapper, ttl);
+    }
+
+    @Bean
+    public ResponseTagInstrumentation responseTagInstrumentation() {
+        return new ResponseTagInstrumentation();
+    }
+
+    @Bean
+    public ResponseCacheInterceptor responseCacheInterceptor(
+            ResponseCache responseCache,
+            JsonMapper jsonMapper,
+            @Value("${cineconnect.graphql.response-cache.fields:movies,genres,moods,globalFeed,platformStats}") Set<String> fields,
+            @Value("${cineconnect.graphql.document-cache-size:1000}") long documentCacheSize) {
+        return new ResponseCacheInterceptor(new ResponseCachePolicy(fields), responseCache, jsonMapper, documentCacheSize);
+    }
+}
@@ -55,7 +55,8 @@ public class SecurityConfig {
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             // Add JWT filter before username/password authentication
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
-            // GraphQL authorization is handled in resolvers, permit all at HTTP level
+            // GraphQL authorization is handled in resolvers, permit all at HTTP level.
+            // Actuator endpoints are not on this port (see management.server.port).
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/graphql/**", "/graphiql/**").permitAll()
                 .anyRequest().permitAll()
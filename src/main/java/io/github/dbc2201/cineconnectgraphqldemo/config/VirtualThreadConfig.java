@@ -0,0 +1,59 @@
+package io.github.dbc2201.cineconnectgraphqldemo.config;
+
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.BoundedVirtualThreadExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+
+/**
+ * Opt-in execution of blocking controller methods on virtual threads
+ * ({@code cineconnect.graphql.virtual-threads.enabled=true}).
+ *
+ * Blocking {@code @QueryMapping} / {@code @SchemaMapping} methods then return futures,
+ * so sibling fields (e.g. the UserDashboard counters) query the database in parallel
+ * instead of one after another on the request thread. Methods that already return a
+ * CompletableFuture (DataLoader-backed fields) are unaffected.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cineconnect.graphql.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * At most one running fetcher per pooled connection by default.
+     */
+    @Bean
+    public BoundedVirtualThreadExecutor graphQlFetcherExecutor(
+            @Value("${cineconnect.graphql.virtual-threads.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(maxConcurrency);
+        Gauge.builder("graphql.executor.permits.available", executor, BoundedVirtualThreadExecutor::availablePermits)
+            .description("Free slots for concurrently running blocking GraphQL data fetchers")
+            .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * The controller configurer is auto-configured, so the executor is applied to it
+     * before it creates the data fetchers.
+     */
+    @Bean
+    public static BeanPostProcessor graphQlFetcherExecutorPostProcessor(
+            ObjectProvider<BoundedVirtualThreadExecutor> executor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AnnotatedControllerConfigurer configurer) {
+                    configurer.setExecutor(executor.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -18,7 +18,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "movies")
-public class Movie {
+public class Movie implements MovieRef {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -59,7 +59,7 @@ public class Movie {
     @Column(name = "imdb_id", unique = true, length = 20)
     private String imdbId;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "movie_genres",
         joinColumns = @JoinColumn(name = "movie_id"),
@@ -67,7 +67,7 @@ public class Movie {
     )
     private Set<Genre> genres = new HashSet<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "movie_moods",
         joinColumns = @JoinColumn(name = "movie_id"),
@@ -90,6 +90,7 @@ public class Movie {
     }
 
     // Getters
+    @Override
     public Long getId() {
         return id;
     }
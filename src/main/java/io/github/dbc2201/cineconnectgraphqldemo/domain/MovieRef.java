@@ -0,0 +1,10 @@
+package io.github.dbc2201.cineconnectgraphqldemo.domain;
+
+/**
+ * Source of a GraphQL Movie: either the {@link Movie} entity or a cached snapshot of it.
+ * Field resolvers only need the ID to load associations and statistics.
+ */
+public interface MovieRef {
+
+    Long getId();
+}
@@ -66,10 +66,11 @@ public class WatchParty {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
-    @OneToMany(mappedBy = "party", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Loaded lazily; GraphQL resolves these collections for whole pages via DataLoaders
+    @OneToMany(mappedBy = "party", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<WatchPartyParticipant> participants = new HashSet<>();
 
-    @OneToMany(mappedBy = "party", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "party", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<WatchPartyMovieSuggestion> movieSuggestions = new HashSet<>();
 
     @PrePersist
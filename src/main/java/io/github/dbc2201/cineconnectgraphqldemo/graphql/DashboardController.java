@@ -1,13 +1,19 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchParty;
 import io.github.dbc2201.cineconnectgraphqldemo.security.CineConnectUserDetailsService.CineConnectUserPrincipal;
 import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService;
 import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService.PlatformStats;
 import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService.UserDashboard;
+import io.github.dbc2201.cineconnectgraphqldemo.service.PlatformStatsService;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 /**
  * GraphQL controller for dashboard and statistics queries.
  */
@@ -15,9 +21,11 @@ import org.springframework.stereotype.Controller;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final PlatformStatsService platformStatsService;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, PlatformStatsService platformStatsService) {
         this.dashboardService = dashboardService;
+        this.platformStatsService = platformStatsService;
     }
 
     @QueryMapping
@@ -25,11 +33,51 @@ public class DashboardController {
         if (principal == null) {
             throw new IllegalStateException("Authentication required");
         }
-        return dashboardService.getUserDashboard(principal.getId());
+        return new UserDashboard(principal.getId());
     }
 
     @QueryMapping
     public PlatformStats platformStats() {
-        return dashboardService.getPlatformStats();
+        return platformStatsService.getPlatformStats();
+    }
+
+    // ========== Field Resolvers ==========
+
+    // Each dashboard field is its own query, so only selected fields hit the database and,
+    // with the virtual-thread executor enabled, the selected ones run in parallel.
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public long reviewCount(UserDashboard dashboard) {
+        return dashboardService.getReviewCount(dashboard.userId());
+    }
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public long followerCount(UserDashboard dashboard) {
+        return dashboardService.getFollowerCount(dashboard.userId());
+    }
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public long followingCount(UserDashboard dashboard) {
+        return dashboardService.getFollowingCount(dashboard.userId());
+    }
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public long watchlistCount(UserDashboard dashboard) {
+        return dashboardService.getWatchlistCount(dashboard.userId());
+    }
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public long hostedPartiesCount(UserDashboard dashboard) {
+        return dashboardService.getHostedPartiesCount(dashboard.userId());
+    }
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public List<Review> recentReviews(UserDashboard dashboard) {
+        return dashboardService.getRecentReviews(dashboard.userId());
+    }
+
+    @SchemaMapping(typeName = "UserDashboard")
+    public List<WatchParty> upcomingParties(UserDashboard dashboard) {
+        return dashboardService.getUpcomingParties(dashboard.userId());
     }
 }
@@ -1,5 +1,7 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
@@ -11,10 +13,22 @@ import java.time.Instant;
 @Controller
 public class HealthQueryController {
 
+    private final ApplicationAvailability availability;
+
+    public HealthQueryController(ApplicationAvailability availability) {
+        this.availability = availability;
+    }
+
+    /**
+     * UP once the instance accepts traffic. Readiness is only reached after startup
+     * tasks such as the cache warm-up have run (see CacheWarmer), and is withdrawn
+     * again during shutdown.
+     */
     @QueryMapping
     public HealthStatus health() {
+        boolean ready = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
         return new HealthStatus(
-            "UP",
+            ready ? "UP" : "OUT_OF_SERVICE",
             "0.0.1-SNAPSHOT",
             Instant.now().toString()
         );
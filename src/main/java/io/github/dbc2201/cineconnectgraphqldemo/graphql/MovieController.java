@@ -3,22 +3,28 @@ package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Genre;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Mood;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.MovieRef;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.CreateMovieInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.MovieFilterInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.UpdateMovieInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.MovieConnection;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.PageInfo;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository.MovieReviewStats;
+import io.github.dbc2201.cineconnectgraphqldemo.service.Cursor;
 import io.github.dbc2201.cineconnectgraphqldemo.service.MovieService;
-import io.github.dbc2201.cineconnectgraphqldemo.service.ReviewService;
-import org.springframework.data.domain.Page;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieSnapshot;
+import io.github.dbc2201.cineconnectgraphqldemo.service.ReferenceDataRegistry;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.Slice;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 /**
  * GraphQL controller for Movie queries and mutations.
@@ -27,47 +33,67 @@ import java.util.List;
 public class MovieController {
 
     private final MovieService movieService;
-    private final ReviewService reviewService;
+    private final ReferenceDataRegistry referenceData;
 
-    public MovieController(MovieService movieService, ReviewService reviewService) {
+    public MovieController(MovieService movieService, ReferenceDataRegistry referenceData) {
         this.movieService = movieService;
-        this.reviewService = reviewService;
+        this.referenceData = referenceData;
     }
 
     // ========== Queries ==========
 
     @QueryMapping
-    public Movie movie(@Argument Long id) {
+    public MovieSnapshot movie(@Argument Long id) {
         return movieService.findById(id).orElse(null);
     }
 
     @QueryMapping
     public MovieConnection movies(@Argument MovieFilterInput filter,
                                   @Argument Integer page,
-                                  @Argument Integer size) {
+                                  @Argument Integer size,
+                                  @Argument Integer first,
+                                  @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<Movie> moviePage;
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Movie> movies;
+        LongSupplier totalCounter;
 
         if (filter != null && filter.genreSlug() != null) {
-            moviePage = movieService.findByGenreSlug(filter.genreSlug(), pageNum, pageSize);
+            String genreSlug = filter.genreSlug();
+            movies = cursor != null
+                ? movieService.findByGenreSlugAfter(genreSlug, cursor, pageSize)
+                : movieService.findByGenreSlug(genreSlug, pageNum, pageSize);
+            totalCounter = () -> movieService.countByGenreSlug(genreSlug);
         } else if (filter != null && filter.moodName() != null) {
-            moviePage = movieService.findByMoodName(filter.moodName(), pageNum, pageSize);
+            String moodName = filter.moodName();
+            movies = cursor != null
+                ? movieService.findByMoodNameAfter(moodName, cursor, pageSize)
+                : movieService.findByMoodName(moodName, pageNum, pageSize);
+            totalCounter = () -> movieService.countByMoodName(moodName);
         } else {
-            moviePage = movieService.findAll(pageNum, pageSize);
+            movies = cursor != null
+                ? movieService.findAllAfter(cursor, pageSize)
+                : movieService.findAll(pageNum, pageSize);
+            totalCounter = movieService::countAll;
         }
 
-        return toMovieConnection(moviePage);
+        return toMovieConnection(movies, cursor != null, totalCounter);
     }
 
     @QueryMapping
     public MovieConnection searchMovies(@Argument String query,
                                         @Argument Integer page,
-                                        @Argument Integer size) {
+                                        @Argument Integer size,
+                                        @Argument Integer first,
+                                        @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<Movie> moviePage = movieService.searchByTitle(query, pageNum, pageSize);
-        return toMovieConnection(moviePage);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Movie> movies = cursor != null
+            ? movieService.searchByTitleAfter(query, cursor, pageSize)
+            : movieService.searchByTitle(query, pageNum, pageSize);
+        return toMovieConnection(movies, cursor != null, () -> movieService.countByTitle(query));
     }
 
     @QueryMapping
@@ -119,27 +145,55 @@ public class MovieController {
 
     // ========== Field Resolvers ==========
 
+    // genres and moods are lazy, so a movie list query reads only the movies table.
+    // When selected, their IDs are loaded for the whole page in one join-table query each
+    // and resolved from the in-memory registry; a cached snapshot already carries the IDs.
+    // A join fetch would instead multiply rows and break SQL-level pagination.
+    // The movie query returns a cached MovieSnapshot; movies in lists and those reached
+    // through other types (reviews, watchlists, parties) are entities.
+
+    @SchemaMapping(typeName = "Movie", field = "genres")
+    public CompletableFuture<List<Genre>> movieGenres(MovieRef movie, DataLoader<Long, List<Integer>> movieGenreIdsLoader) {
+        if (movie instanceof MovieSnapshot snapshot) {
+            return CompletableFuture.completedFuture(referenceData.genres(snapshot.genreIds()));
+        }
+        return movieGenreIdsLoader.load(movie.getId()).thenApply(referenceData::genres);
+    }
+
+    @SchemaMapping(typeName = "Movie", field = "moods")
+    public CompletableFuture<List<Mood>> movieMoods(MovieRef movie, DataLoader<Long, List<Integer>> movieMoodIdsLoader) {
+        if (movie instanceof MovieSnapshot snapshot) {
+            return CompletableFuture.completedFuture(referenceData.moods(snapshot.moodIds()));
+        }
+        return movieMoodIdsLoader.load(movie.getId()).thenApply(referenceData::moods);
+    }
+
+    // Both fields are served by the same batched loader (see DataLoaderConfig),
+    // so a page of movies costs a single aggregate query instead of two per movie.
+
     @SchemaMapping(typeName = "Movie", field = "averageRating")
-    public Float averageRating(Movie movie) {
-        return reviewService.getAverageRatingForMovie(movie.getId())
-            .map(BigDecimal::floatValue)
-            .orElse(null);
+    public CompletableFuture<Float> averageRating(MovieRef movie,
+                                                  DataLoader<Long, MovieReviewStats> movieReviewStatsLoader) {
+        return movieReviewStatsLoader.load(movie.getId())
+            .thenApply(stats -> stats != null ? stats.getAverageRating().floatValue() : null);
     }
 
     @SchemaMapping(typeName = "Movie", field = "reviewCount")
-    public int reviewCount(Movie movie) {
-        return (int) reviewService.getReviewCountForMovie(movie.getId());
+    public CompletableFuture<Integer> reviewCount(MovieRef movie,
+                                                  DataLoader<Long, MovieReviewStats> movieReviewStatsLoader) {
+        return movieReviewStatsLoader.load(movie.getId())
+            .thenApply(stats -> stats != null ? (int) stats.getReviewCount() : 0);
     }
 
     // ========== Helper Methods ==========
 
-    private MovieConnection toMovieConnection(Page<Movie> page) {
-        PageInfo pageInfo = new PageInfo(
-            page.hasNext(),
-            page.hasPrevious(),
-            page.getTotalPages(),
-            (int) page.getTotalElements()
-        );
-        return new MovieConnection(page.getContent(), pageInfo);
+    private MovieConnection toMovieConnection(Slice<Movie> slice, boolean afterCursor, LongSupplier totalCounter) {
+        PageInfo pageInfo = PageInfo.of(slice, afterCursor,
+            Cursor.endOf(slice.getContent(), MovieController::position), totalCounter);
+        return new MovieConnection(slice.getContent(), pageInfo);
+    }
+
+    private static Cursor position(Movie movie) {
+        return new Cursor(movie.getCreatedAt(), movie.getId());
     }
 }
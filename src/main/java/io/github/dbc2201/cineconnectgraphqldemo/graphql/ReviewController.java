@@ -1,21 +1,31 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
+import graphql.schema.DataFetchingFieldSelectionSet;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.ReactionTag;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.CreateReviewInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.UpdateReviewInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.PageInfo;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.ReviewConnection;
+import io.github.dbc2201.cineconnectgraphqldemo.service.Cursor;
 import io.github.dbc2201.cineconnectgraphqldemo.service.ReviewService;
-import org.springframework.data.domain.Page;
+import org.dataloader.DataLoader;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Slice;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 /**
  * GraphQL controller for Review queries and mutations.
@@ -39,11 +49,19 @@ public class ReviewController {
     @QueryMapping
     public ReviewConnection reviewsForMovie(@Argument Long movieId,
                                             @Argument Integer page,
-                                            @Argument Integer size) {
+                                            @Argument Integer size,
+                                            @Argument Integer first,
+                                            @Argument String after,
+                                            DataFetchingFieldSelectionSet selectionSet) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<Review> reviewPage = reviewService.findByMovieId(movieId, pageNum, pageSize);
-        return toReviewConnection(reviewPage);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        // Join the authors into the page query only when the client renders them
+        boolean withUser = selectionSet.contains("content/user");
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Review> reviews = cursor != null
+            ? reviewService.findByMovieIdAfter(movieId, cursor, pageSize, withUser)
+            : reviewService.findByMovieId(movieId, pageNum, pageSize, withUser);
+        return toReviewConnection(reviews, cursor != null, () -> reviewService.getReviewCountForMovie(movieId));
     }
 
     // ========== Mutations ==========
@@ -89,15 +107,42 @@ public class ReviewController {
         return reviewService.deleteReview(id);
     }
 
+    // ========== Field Resolvers ==========
+
+    // Review associations are lazy: a list query reads only the reviews table, and each
+    // association is fetched (batched) only if selected. Already-loaded ones are used as is.
+
+    @SchemaMapping(typeName = "Review", field = "user")
+    public CompletableFuture<User> user(Review review, DataLoader<Long, User> userLoader) {
+        if (Hibernate.isInitialized(review.getUser())) {
+            return CompletableFuture.completedFuture(review.getUser());
+        }
+        return userLoader.load(review.getUser().getId());
+    }
+
+    @SchemaMapping(typeName = "Review", field = "movie")
+    public CompletableFuture<Movie> movie(Review review, DataLoader<Long, Movie> movieLoader) {
+        if (Hibernate.isInitialized(review.getMovie())) {
+            return CompletableFuture.completedFuture(review.getMovie());
+        }
+        return movieLoader.load(review.getMovie().getId());
+    }
+
+    @SchemaMapping(typeName = "Review", field = "reactionTags")
+    public CompletableFuture<List<ReactionTag>> reactionTags(Review review,
+                                                             DataLoader<Long, List<ReactionTag>> reviewReactionTagsLoader) {
+        return reviewReactionTagsLoader.load(review.getId());
+    }
+
     // ========== Helper Methods ==========
 
-    private ReviewConnection toReviewConnection(Page<Review> page) {
-        PageInfo pageInfo = new PageInfo(
-            page.hasNext(),
-            page.hasPrevious(),
-            page.getTotalPages(),
-            (int) page.getTotalElements()
-        );
-        return new ReviewConnection(page.getContent(), pageInfo);
+    private ReviewConnection toReviewConnection(Slice<Review> slice, boolean afterCursor, LongSupplier totalCounter) {
+        PageInfo pageInfo = PageInfo.of(slice, afterCursor,
+            Cursor.endOf(slice.getContent(), ReviewController::position), totalCounter);
+        return new ReviewConnection(slice.getContent(), pageInfo);
+    }
+
+    private static Cursor position(Review review) {
+        return new Cursor(review.getCreatedAt(), review.getId());
     }
 }
@@ -1,5 +1,7 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
+import io.github.dbc2201.cineconnectgraphqldemo.config.DataLoaderConfig.ViewerScopedKey;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Follower;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchlistItem;
@@ -9,10 +11,12 @@ import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.ReviewConnection;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.UserConnection;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.WatchlistConnection;
 import io.github.dbc2201.cineconnectgraphqldemo.security.CineConnectUserDetailsService.CineConnectUserPrincipal;
+import io.github.dbc2201.cineconnectgraphqldemo.service.Cursor;
 import io.github.dbc2201.cineconnectgraphqldemo.service.FeedService;
 import io.github.dbc2201.cineconnectgraphqldemo.service.SocialService;
 import io.github.dbc2201.cineconnectgraphqldemo.service.UserService;
-import org.springframework.data.domain.Page;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.Slice;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -20,6 +24,10 @@ import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
 /**
  * GraphQL controller for social features: following and watchlist.
  */
@@ -41,31 +49,48 @@ public class SocialController {
     @QueryMapping
     public UserConnection following(@Argument Long userId,
                                     @Argument Integer page,
-                                    @Argument Integer size) {
+                                    @Argument Integer size,
+                                    @Argument Integer first,
+                                    @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<User> users = socialService.getFollowing(userId, pageNum, pageSize);
-        return toUserConnection(users);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Follower> follows = cursor != null
+            ? socialService.getFollowingAfter(userId, cursor, pageSize)
+            : socialService.getFollowing(userId, pageNum, pageSize);
+        return toUserConnection(follows, Follower::getFollowing, cursor != null,
+            () -> socialService.getFollowingCount(userId));
     }
 
     @QueryMapping
     public UserConnection followers(@Argument Long userId,
                                     @Argument Integer page,
-                                    @Argument Integer size) {
+                                    @Argument Integer size,
+                                    @Argument Integer first,
+                                    @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<User> users = socialService.getFollowers(userId, pageNum, pageSize);
-        return toUserConnection(users);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Follower> follows = cursor != null
+            ? socialService.getFollowersAfter(userId, cursor, pageSize)
+            : socialService.getFollowers(userId, pageNum, pageSize);
+        return toUserConnection(follows, Follower::getFollower, cursor != null,
+            () -> socialService.getFollowerCount(userId));
     }
 
     @QueryMapping
     public WatchlistConnection watchlist(@Argument Long userId,
                                          @Argument Integer page,
-                                         @Argument Integer size) {
+                                         @Argument Integer size,
+                                         @Argument Integer first,
+                                         @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<WatchlistItem> items = socialService.getWatchlist(userId, pageNum, pageSize);
-        return toWatchlistConnection(items);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<WatchlistItem> items = cursor != null
+            ? socialService.getWatchlistAfter(userId, cursor, pageSize)
+            : socialService.getWatchlist(userId, pageNum, pageSize);
+        return toWatchlistConnection(items, cursor != null, () -> socialService.getWatchlistCount(userId));
     }
 
     @QueryMapping
@@ -89,23 +114,33 @@ public class SocialController {
     @QueryMapping
     public ReviewConnection friendsFeed(@Argument Integer page,
                                         @Argument Integer size,
+                                        @Argument Integer first,
+                                        @Argument String after,
                                         @AuthenticationPrincipal CineConnectUserPrincipal principal) {
         if (principal == null) {
             throw new IllegalStateException("Authentication required");
         }
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<Review> reviews = feedService.getFriendsFeed(principal.getId(), pageNum, pageSize);
-        return toReviewConnection(reviews);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Review> reviews = cursor != null
+            ? feedService.getFriendsFeedAfter(principal.getId(), cursor, pageSize)
+            : feedService.getFriendsFeed(principal.getId(), pageNum, pageSize);
+        return toReviewConnection(reviews, cursor != null, () -> feedService.countFriendsFeed(principal.getId()));
     }
 
     @QueryMapping
     public ReviewConnection globalFeed(@Argument Integer page,
-                                       @Argument Integer size) {
+                                       @Argument Integer size,
+                                       @Argument Integer first,
+                                       @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<Review> reviews = feedService.getGlobalFeed(pageNum, pageSize);
-        return toReviewConnection(reviews);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<Review> reviews = cursor != null
+            ? feedService.getGlobalFeedAfter(cursor, pageSize)
+            : feedService.getGlobalFeed(pageNum, pageSize);
+        return toReviewConnection(reviews, cursor != null, feedService::countGlobalFeed);
     }
 
     // ========== Mutations ==========
@@ -163,58 +198,67 @@ public class SocialController {
     // ========== Field Resolvers for User ==========
 
     @SchemaMapping(typeName = "User", field = "followingCount")
-    public int followingCount(User user) {
-        return (int) socialService.getFollowingCount(user.getId());
+    public CompletableFuture<Integer> followingCount(User user,
+                                                     DataLoader<Long, Long> followingCountLoader) {
+        return followingCountLoader.load(user.getId()).thenApply(Long::intValue);
     }
 
     @SchemaMapping(typeName = "User", field = "followerCount")
-    public int followerCount(User user) {
-        return (int) socialService.getFollowerCount(user.getId());
+    public CompletableFuture<Integer> followerCount(User user,
+                                                    DataLoader<Long, Long> followerCountLoader) {
+        return followerCountLoader.load(user.getId()).thenApply(Long::intValue);
     }
 
     @SchemaMapping(typeName = "User", field = "watchlistCount")
-    public int watchlistCount(User user) {
-        return (int) socialService.getWatchlistCount(user.getId());
+    public CompletableFuture<Integer> watchlistCount(User user,
+                                                     DataLoader<Long, Long> watchlistCountLoader) {
+        return watchlistCountLoader.load(user.getId()).thenApply(Long::intValue);
     }
 
     @SchemaMapping(typeName = "User", field = "isFollowedByMe")
-    public Boolean isFollowedByMe(User user,
-                                  @AuthenticationPrincipal CineConnectUserPrincipal principal) {
+    public CompletableFuture<Boolean> isFollowedByMe(User user,
+                                                     DataLoader<ViewerScopedKey, Boolean> followedByViewerLoader,
+                                                     @AuthenticationPrincipal CineConnectUserPrincipal principal) {
         if (principal == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
-        return socialService.isFollowing(principal.getId(), user.getId());
+        return followedByViewerLoader.load(new ViewerScopedKey(principal.getId(), user.getId()));
     }
 
     // ========== Helper Methods ==========
 
-    private UserConnection toUserConnection(Page<User> page) {
-        PageInfo pageInfo = new PageInfo(
-            page.hasNext(),
-            page.hasPrevious(),
-            page.getTotalPages(),
-            (int) page.getTotalElements()
-        );
-        return new UserConnection(page.getContent(), pageInfo);
-    }
-
-    private WatchlistConnection toWatchlistConnection(Page<WatchlistItem> page) {
-        PageInfo pageInfo = new PageInfo(
-            page.hasNext(),
-            page.hasPrevious(),
-            page.getTotalPages(),
-            (int) page.getTotalElements()
-        );
-        return new WatchlistConnection(page.getContent(), pageInfo);
-    }
-
-    private ReviewConnection toReviewConnection(Page<Review> page) {
-        PageInfo pageInfo = new PageInfo(
-            page.hasNext(),
-            page.hasPrevious(),
-            page.getTotalPages(),
-            (int) page.getTotalElements()
-        );
-        return new ReviewConnection(page.getContent(), pageInfo);
+    /**
+     * Users listed by follow row: the cursor is the position of the follow, not of the user.
+     */
+    private UserConnection toUserConnection(Slice<Follower> slice, Function<Follower, User> user,
+                                            boolean afterCursor, LongSupplier totalCounter) {
+        PageInfo pageInfo = PageInfo.of(slice, afterCursor,
+            Cursor.endOf(slice.getContent(), SocialController::followPosition), totalCounter);
+        return new UserConnection(slice.getContent().stream().map(user).toList(), pageInfo);
+    }
+
+    private WatchlistConnection toWatchlistConnection(Slice<WatchlistItem> slice, boolean afterCursor,
+                                                      LongSupplier totalCounter) {
+        PageInfo pageInfo = PageInfo.of(slice, afterCursor,
+            Cursor.endOf(slice.getContent(), SocialController::watchlistPosition), totalCounter);
+        return new WatchlistConnection(slice.getContent(), pageInfo);
+    }
+
+    private ReviewConnection toReviewConnection(Slice<Review> slice, boolean afterCursor, LongSupplier totalCounter) {
+        PageInfo pageInfo = PageInfo.of(slice, afterCursor,
+            Cursor.endOf(slice.getContent(), SocialController::reviewPosition), totalCounter);
+        return new ReviewConnection(slice.getContent(), pageInfo);
+    }
+
+    private static Cursor followPosition(Follower follow) {
+        return new Cursor(follow.getCreatedAt(), follow.getId());
+    }
+
+    private static Cursor watchlistPosition(WatchlistItem item) {
+        return new Cursor(item.getAddedAt(), item.getId());
+    }
+
+    private static Cursor reviewPosition(Review review) {
+        return new Cursor(review.getCreatedAt(), review.getId());
     }
 }
@@ -1,13 +1,15 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
-import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.service.UserService;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * GraphQL controller for User queries.
  */
@@ -15,11 +17,9 @@ import org.springframework.stereotype.Controller;
 public class UserController {
 
     private final UserService userService;
-    private final ReviewRepository reviewRepository;
 
-    public UserController(UserService userService, ReviewRepository reviewRepository) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.reviewRepository = reviewRepository;
     }
 
     // ========== Queries ==========
@@ -37,9 +37,9 @@ public class UserController {
     // ========== Field Resolvers ==========
 
     @SchemaMapping(typeName = "User", field = "reviewCount")
-    public int reviewCount(User user) {
-        return (int) reviewRepository.findByUserId(user.getId(),
-            org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+    public CompletableFuture<Integer> reviewCount(User user,
+                                                  DataLoader<Long, Long> userReviewCountLoader) {
+        return userReviewCountLoader.load(user.getId()).thenApply(Long::intValue);
     }
 
     // Note: followerCount, followingCount, watchlistCount, and isFollowedByMe
@@ -1,21 +1,29 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
+import io.github.dbc2201.cineconnectgraphqldemo.config.DataLoaderConfig.ViewerScopedKey;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.*;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.CreateWatchPartyInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.input.UpdateWatchPartyInput;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.PageInfo;
 import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.WatchPartyConnection;
 import io.github.dbc2201.cineconnectgraphqldemo.security.CineConnectUserDetailsService.CineConnectUserPrincipal;
+import io.github.dbc2201.cineconnectgraphqldemo.service.Cursor;
+import io.github.dbc2201.cineconnectgraphqldemo.service.PartyVoteFeed;
 import io.github.dbc2201.cineconnectgraphqldemo.service.WatchPartyService;
-import org.springframework.data.domain.Page;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.Slice;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 /**
  * GraphQL controller for watch party operations.
@@ -24,9 +32,11 @@ import java.util.List;
 public class WatchPartyController {
 
     private final WatchPartyService watchPartyService;
+    private final PartyVoteFeed partyVoteFeed;
 
-    public WatchPartyController(WatchPartyService watchPartyService) {
+    public WatchPartyController(WatchPartyService watchPartyService, PartyVoteFeed partyVoteFeed) {
         this.watchPartyService = watchPartyService;
+        this.partyVoteFeed = partyVoteFeed;
     }
 
     // ========== Queries ==========
@@ -38,37 +48,54 @@ public class WatchPartyController {
 
     @QueryMapping
     public WatchPartyConnection upcomingParties(@Argument Integer page,
-                                                 @Argument Integer size) {
+                                                 @Argument Integer size,
+                                                 @Argument Integer first,
+                                                 @Argument String after) {
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<WatchParty> parties = watchPartyService.getUpcomingPublicParties(pageNum, pageSize);
-        return toWatchPartyConnection(parties);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<WatchParty> parties = cursor != null
+            ? watchPartyService.getUpcomingPublicPartiesAfter(cursor, pageSize)
+            : watchPartyService.getUpcomingPublicParties(pageNum, pageSize);
+        return toWatchPartyConnection(parties, cursor != null, watchPartyService::countUpcomingPublicParties);
     }
 
     @QueryMapping
     public WatchPartyConnection myHostedParties(@Argument Integer page,
                                                  @Argument Integer size,
+                                                 @Argument Integer first,
+                                                 @Argument String after,
                                                  @AuthenticationPrincipal CineConnectUserPrincipal principal) {
         if (principal == null) {
             throw new IllegalStateException("Authentication required");
         }
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<WatchParty> parties = watchPartyService.getPartiesHostedBy(principal.getId(), pageNum, pageSize);
-        return toWatchPartyConnection(parties);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<WatchParty> parties = cursor != null
+            ? watchPartyService.getPartiesHostedByAfter(principal.getId(), cursor, pageSize)
+            : watchPartyService.getPartiesHostedBy(principal.getId(), pageNum, pageSize);
+        return toWatchPartyConnection(parties, cursor != null,
+            () -> watchPartyService.countPartiesHostedBy(principal.getId()));
     }
 
     @QueryMapping
     public WatchPartyConnection myParties(@Argument Integer page,
                                            @Argument Integer size,
+                                           @Argument Integer first,
+                                           @Argument String after,
                                            @AuthenticationPrincipal CineConnectUserPrincipal principal) {
         if (principal == null) {
             throw new IllegalStateException("Authentication required");
         }
         int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        Page<WatchParty> parties = watchPartyService.getPartiesForUser(principal.getId(), pageNum, pageSize);
-        return toWatchPartyConnection(parties);
+        int pageSize = first != null ? first : size != null ? size : PageInfo.DEFAULT_PAGE_SIZE;
+        Cursor cursor = after != null ? Cursor.decode(after) : null;
+        Slice<WatchParty> parties = cursor != null
+            ? watchPartyService.getPartiesForUserAfter(principal.getId(), cursor, pageSize)
+            : watchPartyService.getPartiesForUser(principal.getId(), pageNum, pageSize);
+        return toWatchPartyConnection(parties, cursor != null,
+            () -> watchPartyService.countPartiesForUser(principal.getId()));
     }
 
     @QueryMapping
@@ -214,26 +241,43 @@ public class WatchPartyController {
         return watchPartyService.setPartyMovie(partyId, principal.getId(), movieId);
     }
 
+    // ========== Subscriptions ==========
+
+    @SubscriptionMapping
+    public Flux<List<WatchPartyMovieSuggestion>> partyVotes(@Argument Long partyId) {
+        return partyVoteFeed.votes(partyId);
+    }
+
     // ========== Field Resolvers for WatchParty ==========
 
+    // participants and movieSuggestions are LAZY on the entity; everything derived from
+    // them goes through the batched party loaders so a page of parties costs one query each.
+
     @SchemaMapping(typeName = "WatchParty", field = "participantCount")
-    public int participantCount(WatchParty party) {
-        return party.getParticipantCount();
+    public CompletableFuture<Integer> participantCount(WatchParty party,
+                                                       DataLoader<Long, List<WatchPartyParticipant>> partyParticipantsLoader) {
+        return partyParticipantsLoader.load(party.getId())
+            .thenApply(WatchPartyController::countJoined);
     }
 
     @SchemaMapping(typeName = "WatchParty", field = "isFull")
-    public boolean isFull(WatchParty party) {
-        return party.isFull();
+    public CompletableFuture<Boolean> isFull(WatchParty party,
+                                             DataLoader<Long, List<WatchPartyParticipant>> partyParticipantsLoader) {
+        return partyParticipantsLoader.load(party.getId())
+            .thenApply(participants -> party.getMaxParticipants() != null
+                && countJoined(participants) >= party.getMaxParticipants());
     }
 
     @SchemaMapping(typeName = "WatchParty", field = "participants")
-    public List<WatchPartyParticipant> participants(WatchParty party) {
-        return watchPartyService.getParticipants(party.getId());
+    public CompletableFuture<List<WatchPartyParticipant>> participants(WatchParty party,
+                                                                       DataLoader<Long, List<WatchPartyParticipant>> partyParticipantsLoader) {
+        return partyParticipantsLoader.load(party.getId());
     }
 
     @SchemaMapping(typeName = "WatchParty", field = "movieSuggestions")
-    public List<WatchPartyMovieSuggestion> movieSuggestions(WatchParty party) {
-        return watchPartyService.getMovieSuggestions(party.getId());
+    public CompletableFuture<List<WatchPartyMovieSuggestion>> movieSuggestions(WatchParty party,
+                                                                               DataLoader<Long, List<WatchPartyMovieSuggestion>> partySuggestionsLoader) {
+        return partySuggestionsLoader.load(party.getId());
     }
 
     @SchemaMapping(typeName = "WatchParty", field = "isHost")
@@ -246,35 +290,45 @@ public class WatchPartyController {
     }
 
     @SchemaMapping(typeName = "WatchParty", field = "isParticipant")
-    public Boolean isParticipant(WatchParty party,
-                                  @AuthenticationPrincipal CineConnectUserPrincipal principal) {
+    public CompletableFuture<Boolean> isParticipant(WatchParty party,
+                                                    DataLoader<ViewerScopedKey, Boolean> viewerParticipationLoader,
+                                                    @AuthenticationPrincipal CineConnectUserPrincipal principal) {
         if (principal == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
-        return watchPartyService.isParticipant(party.getId(), principal.getId());
+        return viewerParticipationLoader.load(new ViewerScopedKey(principal.getId(), party.getId()));
     }
 
     @SchemaMapping(typeName = "WatchParty", field = "myParticipation")
-    public WatchPartyParticipant myParticipation(WatchParty party,
-                                                  @AuthenticationPrincipal CineConnectUserPrincipal principal) {
+    public CompletableFuture<WatchPartyParticipant> myParticipation(WatchParty party,
+                                                                    DataLoader<Long, List<WatchPartyParticipant>> partyParticipantsLoader,
+                                                                    @AuthenticationPrincipal CineConnectUserPrincipal principal) {
         if (principal == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
-        return party.getParticipants().stream()
-            .filter(p -> p.getUser().getId().equals(principal.getId()))
-            .findFirst()
-            .orElse(null);
+        return partyParticipantsLoader.load(party.getId())
+            .thenApply(participants -> participants.stream()
+                .filter(p -> p.getUser().getId().equals(principal.getId()))
+                .findFirst()
+                .orElse(null));
     }
 
     // ========== Helper Methods ==========
 
-    private WatchPartyConnection toWatchPartyConnection(Page<WatchParty> page) {
-        PageInfo pageInfo = new PageInfo(
-            page.hasNext(),
-            page.hasPrevious(),
-            page.getTotalPages(),
-            (int) page.getTotalElements()
-        );
-        return new WatchPartyConnection(page.getContent(), pageInfo);
+    private static int countJoined(List<WatchPartyParticipant> participants) {
+        return (int) participants.stream()
+            .filter(p -> p.getStatus() == ParticipantStatus.JOINED)
+            .count();
+    }
+
+    private WatchPartyConnection toWatchPartyConnection(Slice<WatchParty> slice, boolean afterCursor,
+                                                        LongSupplier totalCounter) {
+        PageInfo pageInfo = PageInfo.of(slice, afterCursor,
+            Cursor.endOf(slice.getContent(), WatchPartyController::position), totalCounter);
+        return new WatchPartyConnection(slice.getContent(), pageInfo);
+    }
+
+    private static Cursor position(WatchParty party) {
+        return new Cursor(party.getScheduledAt(), party.getId());
     }
 }
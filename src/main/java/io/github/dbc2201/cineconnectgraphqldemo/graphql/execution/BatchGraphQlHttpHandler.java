@@ -0,0 +1,147 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.MediaType;
+import org.springframework.util.AlternativeJdkIdGenerator;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes a JSON array of GraphQL operations sent in one HTTP request and answers
+ * with the array of their results, in the same order.
+ *
+ * Results are streamed asynchronously: the servlet thread is released once the batch is
+ * started, and each result is serialized straight onto the response (no byte[] copy) and
+ * flushed as soon as its operation completes, so a batch never holds more than one result
+ * tree in memory. The 200 status is committed
+ * with the first result; if an operation fails after that, an error result takes its place,
+ * the array is closed and the remaining operations are not run.
+ *
+ * Each operation still passes through the interceptor chain (cost limits, response
+ * cache, ...) on its own. All operations of a batch share one DataLoader registry
+ * (see {@link SharedDataLoaderInstrumentation}), so a page firing several queries
+ * about the same movies and users loads each of them once.
+ */
+public class BatchGraphQlHttpHandler {
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> OPERATIONS_TYPE =
+        new ParameterizedTypeReference<>() {
+        };
+
+    private static final Map<String, Object> FAILED_RESULT = Map.of("errors", List.of(Map.of(
+        "message", "Batch execution failed",
+        "extensions", Map.of("classification", "INTERNAL_ERROR"))));
+
+    private final IdGenerator idGenerator = new AlternativeJdkIdGenerator();
+
+    private final WebGraphQlHandler graphQlHandler;
+    private final int maxOperations;
+
+    public BatchGraphQlHttpHandler(WebGraphQlHandler graphQlHandler, int maxOperations) {
+        this.graphQlHandler = graphQlHandler;
+        this.maxOperations = maxOperations;
+    }
+
+    public ServerResponse handleRequest(ServerRequest request) throws ServletException, IOException {
+        List<Map<String, Object>> operations = request.body(OPERATIONS_TYPE);
+        if (operations.isEmpty() || operations.size() > maxOperations) {
+            throw new ServerWebInputException(
+                "A batch must contain between 1 and " + maxOperations + " operations");
+        }
+
+        AtomicReference<DataLoaderRegistry> sharedRegistry = new AtomicReference<>();
+        MultiValueMap<String, HttpCookie> cookies = cookies(request);
+        // Requests are built and handed to the interceptor chain here, on the request thread, so a
+        // malformed operation is rejected up front and every operation sees the caller's security
+        // context. Execution itself is deferred: concat runs the operations one after another, so
+        // each sees the loader cache filled by the previous ones.
+        List<Mono<WebGraphQlResponse>> responses = operations.stream()
+            .map(operation -> graphQlHandler.handleRequest(operationRequest(request, cookies, operation, sharedRegistry)))
+            .toList();
+        return ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .stream(stream -> streamResults(Flux.concat(responses), stream));
+    }
+
+    // Writes run on whichever thread completes each operation; nothing blocks on the results
+    private void streamResults(Flux<WebGraphQlResponse> responses, ServerResponse.StreamBuilder stream) {
+        AtomicBoolean started = new AtomicBoolean();
+        Disposable subscription = responses.subscribe(
+            response -> writeElement(stream, started, response.toMap()),
+            error -> {
+                try {
+                    writeElement(stream, started, FAILED_RESULT);
+                    stream.write("]");
+                    stream.complete();
+                } catch (IOException | UncheckedIOException e) {
+                    stream.error(error);
+                }
+            },
+            () -> {
+                try {
+                    stream.write("]");
+                    stream.complete();
+                } catch (IOException e) {
+                    stream.error(e);
+                }
+            });
+        // Client gone or async timeout: stop running the remaining operations
+        stream.onError(error -> subscription.dispose()).onTimeout(subscription::dispose);
+    }
+
+    private void writeElement(ServerResponse.StreamBuilder stream, AtomicBoolean started, Map<String, Object> result) {
+        try {
+            stream.write(started.compareAndSet(false, true) ? "[" : ",");
+            // Serialized by the JSON message converter straight onto the response stream
+            stream.write(result, MediaType.APPLICATION_JSON);
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private WebGraphQlRequest operationRequest(ServerRequest request,
+                                               MultiValueMap<String, HttpCookie> cookies,
+                                               Map<String, Object> operation,
+                                               AtomicReference<DataLoaderRegistry> sharedRegistry) {
+        WebGraphQlRequest graphQlRequest = new WebGraphQlRequest(
+            request.uri(), request.headers().asHttpHeaders(), cookies,
+            request.remoteAddress().orElse(null), request.attributes(),
+            operation, idGenerator.generateId().toString(), LocaleContextHolder.getLocale());
+        graphQlRequest.configureExecutionInput((input, builder) ->
+            builder.graphQLContext(Map.of(SharedDataLoaderInstrumentation.REGISTRY_KEY, sharedRegistry)).build());
+        return graphQlRequest;
+    }
+
+    private static MultiValueMap<String, HttpCookie> cookies(ServerRequest request) {
+        MultiValueMap<String, HttpCookie> cookies = new LinkedMultiValueMap<>();
+        request.cookies().forEach((name, values) -> {
+            for (Cookie cookie : values) {
+                cookies.add(name, new HttpCookie(name, cookie.getValue()));
+            }
+        });
+        return cookies;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Size-bounded cache of parsed and validated GraphQL documents, keyed by query hash.
+ *
+ * Unlike graphql-java's InMemoryPersistedQueryCache this evicts old entries,
+ * so arbitrary client queries cannot grow it without limit.
+ */
+public class BoundedPersistedQueryCache implements PersistedQueryCache {
+
+    private final Cache<Object, PreparsedDocumentEntry> documents;
+
+    public BoundedPersistedQueryCache(long maximumSize) {
+        this.documents = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId,
+                                                                                   ExecutionInput executionInput,
+                                                                                   PersistedQueryCacheMiss onCacheMiss) {
+        PreparsedDocumentEntry cached = documents.getIfPresent(persistedQueryId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // A hash-only request carries graphql-java's marker instead of a query;
+        // passing null makes onCacheMiss throw PersistedQueryNotFound so the client resends the text
+        String query = executionInput.getQuery();
+        boolean hashOnly = PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query);
+        PreparsedDocumentEntry entry = onCacheMiss.apply(hashOnly ? null : query);
+
+        // Invalid documents are not cached so a fixed schema or query is picked up next time
+        if (!entry.hasErrors()) {
+            documents.put(persistedQueryId, entry);
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+}
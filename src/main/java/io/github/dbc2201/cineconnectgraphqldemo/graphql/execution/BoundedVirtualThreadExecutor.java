@@ -0,0 +1,50 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs each task on its own virtual thread, with at most {@code maxConcurrency}
+ * tasks running at once.
+ *
+ * Data fetchers block on JDBC, so the limit is the connection pool size: more
+ * concurrent fetchers would only queue inside Hikari and risk connection timeouts.
+ * Waiting tasks park their virtual thread rather than holding a platform thread.
+ */
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final ExecutorService virtualThreads =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("graphql-vt-", 0).factory());
+    private final Semaphore permits;
+
+    public BoundedVirtualThreadExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        virtualThreads.execute(() -> {
+            // Uninterruptible: a task that never runs would leave its field's future incomplete
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        virtualThreads.close();
+    }
+}
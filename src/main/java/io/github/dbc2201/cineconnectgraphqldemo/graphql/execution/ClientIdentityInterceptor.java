@@ -0,0 +1,50 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import io.github.dbc2201.cineconnectgraphqldemo.security.CineConnectUserDetailsService.CineConnectUserPrincipal;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Stores a stable key for the calling client in the GraphQLContext.
+ *
+ * Authenticated requests are keyed by user ID, anonymous ones by remote address.
+ * Behind the load balancer the socket peer is the balancer itself, so the remote address
+ * must be the forwarded client address: {@code server.forward-headers-strategy} has to be
+ * enabled, otherwise all anonymous callers share one key per node.
+ * Execution-level components (e.g. the query cost budget) read it from there
+ * because the security context is not available on every thread they run on.
+ */
+public class ClientIdentityInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CLIENT_KEY = "cineconnect.clientKey";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String clientKey = resolveClientKey(request);
+        request.configureExecutionInput((input, builder) ->
+            builder.graphQLContext(Map.of(CLIENT_KEY, clientKey)).build());
+        return chain.next(request);
+    }
+
+    private String resolveClientKey(WebGraphQlRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CineConnectUserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "anonymous";
+        }
+        // An unresolved address has no InetAddress, only the host string it was created from
+        InetAddress address = remoteAddress.getAddress();
+        return "ip:" + (address != null ? address.getHostAddress() : remoteAddress.getHostString());
+    }
+}
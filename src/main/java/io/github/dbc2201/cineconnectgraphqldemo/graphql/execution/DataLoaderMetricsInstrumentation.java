@@ -0,0 +1,56 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DispatchResult;
+import org.dataloader.instrumentation.DataLoaderInstrumentation;
+import org.dataloader.instrumentation.DataLoaderInstrumentationContext;
+import org.dataloader.instrumentation.DataLoaderInstrumentationHelper;
+
+import java.util.List;
+
+/**
+ * Records DataLoader activity as Micrometer metrics, tagged by loader name:
+ * <ul>
+ *   <li>{@code graphql.dataloader.dispatch} - how often the loader was dispatched</li>
+ *   <li>{@code graphql.dataloader.batch.size} - keys per batch call (1 means batching is not helping)</li>
+ * </ul>
+ * Batch latency is already reported by Spring GraphQL's {@code graphql.dataloader} observation.
+ */
+public class DataLoaderMetricsInstrumentation implements DataLoaderInstrumentation {
+
+    private final MeterRegistry meterRegistry;
+
+    public DataLoaderMetricsInstrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public DataLoaderInstrumentationContext<DispatchResult<?>> beginDispatch(DataLoader<?, ?> dataLoader) {
+        Counter.builder("graphql.dataloader.dispatch")
+            .description("DataLoader dispatch calls")
+            .tag("loader", loaderName(dataLoader))
+            .register(meterRegistry)
+            .increment();
+        return DataLoaderInstrumentationHelper.noOpCtx();
+    }
+
+    @Override
+    public DataLoaderInstrumentationContext<List<?>> beginBatchLoader(DataLoader<?, ?> dataLoader,
+                                                                      List<?> keys,
+                                                                      BatchLoaderEnvironment environment) {
+        DistributionSummary.builder("graphql.dataloader.batch.size")
+            .description("Number of keys per DataLoader batch")
+            .tag("loader", loaderName(dataLoader))
+            .register(meterRegistry)
+            .record(keys.size());
+        return DataLoaderInstrumentationHelper.noOpCtx();
+    }
+
+    private static String loaderName(DataLoader<?, ?> dataLoader) {
+        return dataLoader.getName() != null ? dataLoader.getName() : "unnamed";
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.dbc2201.cineconnectgraphqldemo.service.EntityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Process-local cache of entities by ID, shared by all requests.
+ *
+ * DataLoaders only cache within one request; this sits behind a loader's batch function
+ * so popular entities are read from PostgreSQL once per TTL rather than once per request.
+ * Entries are dropped when a service publishes an {@link EntityChangedEvent} for them;
+ * a load that overlaps such a change is returned to its caller but not cached.
+ * Hit and miss counts are exported as {@code cache.gets}, tagged with the cache name.
+ *
+ * Cached entities are detached and shared between threads, so callers must only read them.
+ */
+public class EntityCache<V> {
+
+    private final String entityType;
+    private final Cache<Long, V> cache;
+    // Bumped on every invalidation, so a load can tell whether one happened while it ran
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EntityCache(Class<V> entityType, long maximumSize, Duration ttl, MeterRegistry meterRegistry, String name) {
+        this.entityType = entityType.getSimpleName();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Cached entities for the given IDs; the missing ones are loaded with a single call.
+     * IDs the loader does not return are absent from the result and not cached.
+     */
+    public Map<Long, V> getAll(Set<Long> ids, Function<Set<Long>, Map<Long, V>> loader) {
+        Map<Long, V> result = new HashMap<>(cache.getAllPresent(ids));
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        Map<Long, V> loaded = loader.apply(Set.copyOf(missing));
+        result.putAll(loaded);
+        cache.putAll(loaded);
+        // An entity changed during the load may have been read before the change: drop the
+        // batch. Checked after the put, so an invalidation racing with it cannot be missed.
+        if (invalidations.get() != invalidationsBefore) {
+            cache.invalidateAll(loaded.keySet());
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (entityType.equals(event.entityType())) {
+            invalidations.incrementAndGet();
+            cache.invalidate(event.id());
+        }
+    }
+}
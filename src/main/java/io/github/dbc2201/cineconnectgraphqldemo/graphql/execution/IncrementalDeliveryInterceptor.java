@@ -0,0 +1,27 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExperimentalApi;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Turns on {@code @defer} execution for requests that accept {@code multipart/mixed}.
+ *
+ * For every other request the directive is ignored and deferred fragments are
+ * resolved inline, since a single JSON response cannot carry the later parts.
+ */
+public class IncrementalDeliveryInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (MultipartGraphQlHttpHandler.acceptsMultipart(request.getHeaders().getAccept())) {
+            request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, true)).build());
+        }
+        return chain.next(request);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.incremental.IncrementalExecutionResult;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.webmvc.AbstractGraphQlHttpHandler;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RequestPredicate;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves operations using {@code @defer} as a {@code multipart/mixed} HTTP response.
+ *
+ * The first part carries everything that is not deferred and is flushed as soon as it
+ * is ready; each deferred fragment follows in its own part when it resolves. Clients opt
+ * in by accepting {@code multipart/mixed}, other requests keep the single JSON response.
+ *
+ * Parts are written asynchronously from the threads resolving the deferred fragments, so
+ * no servlet thread waits for them. If a fragment fails after the first part was sent, a
+ * final part carrying the error and {@code hasNext: false} closes the response.
+ */
+public class MultipartGraphQlHttpHandler extends AbstractGraphQlHttpHandler {
+
+    private static final String BOUNDARY = "-";
+
+    private static final MediaType MULTIPART_MIXED = new MediaType("multipart", "mixed",
+        Map.of("boundary", "\"" + BOUNDARY + "\"", "deferSpec", "20220824"));
+
+    private static final byte[] PART_HEADER =
+        ("\r\n--" + BOUNDARY + "\r\nContent-Type: application/json; charset=utf-8\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] CLOSE_DELIMITER = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+    private static final Map<String, Object> FAILED_PART = Map.of(
+        "errors", List.of(Map.of(
+            "message", "Deferred execution failed",
+            "extensions", Map.of("classification", "INTERNAL_ERROR"))),
+        "hasNext", false);
+
+    public MultipartGraphQlHttpHandler(WebGraphQlHandler graphQlHandler) {
+        super(graphQlHandler, null);
+    }
+
+    /**
+     * Whether the client explicitly accepts multipart responses ({@code *}{@code /*} does not count).
+     */
+    public static boolean acceptsMultipart(List<MediaType> acceptedTypes) {
+        return acceptedTypes.stream().anyMatch(MediaType.MULTIPART_MIXED::equalsTypeAndSubtype);
+    }
+
+    public static RequestPredicate multipartRequest() {
+        return request -> acceptsMultipart(request.headers().accept());
+    }
+
+    @Override
+    protected ServerResponse prepareResponse(ServerRequest request, Mono<WebGraphQlResponse> responseMono) {
+        return ServerResponse.async(responseMono.map(this::multipartResponse).toFuture());
+    }
+
+    private ServerResponse multipartResponse(WebGraphQlResponse response) {
+        return ServerResponse.ok()
+            .contentType(MULTIPART_MIXED)
+            .stream(stream -> streamParts(response, stream));
+    }
+
+    private void streamParts(WebGraphQlResponse response, ServerResponse.StreamBuilder stream) {
+        try {
+            writePart(stream, response.toMap());
+        } catch (UncheckedIOException e) {
+            stream.error(e);
+            return;
+        }
+        ExecutionResult result = response.getExecutionResult();
+        if (!(result instanceof IncrementalExecutionResult incremental) || !incremental.hasNext()) {
+            close(stream);
+            return;
+        }
+        // Each deferred fragment is written from the thread that resolved it
+        Disposable subscription = Flux.from(incremental.getIncrementalItemPublisher()).subscribe(
+            part -> writePart(stream, part.toSpecification()),
+            error -> {
+                try {
+                    writePart(stream, FAILED_PART);
+                    close(stream);
+                } catch (UncheckedIOException e) {
+                    stream.error(error);
+                }
+            },
+            () -> close(stream));
+        stream.onError(error -> subscription.dispose()).onTimeout(subscription::dispose);
+    }
+
+    private void writePart(ServerResponse.StreamBuilder stream, Map<String, Object> payload) {
+        try {
+            stream.write(PART_HEADER);
+            // Serialized by the JSON message converter straight onto the response, without a byte[] copy
+            stream.write(payload, MediaType.APPLICATION_JSON);
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(ServerResponse.StreamBuilder stream) {
+        try {
+            stream.write(CLOSE_DELIMITER);
+            stream.complete();
+        } catch (IOException e) {
+            stream.error(e);
+        }
+    }
+}
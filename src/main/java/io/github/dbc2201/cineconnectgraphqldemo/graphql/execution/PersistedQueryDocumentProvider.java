@@ -0,0 +1,50 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Pre-parsed document provider implementing Automatic Persisted Queries (APQ).
+ *
+ * Clients send {@code extensions.persistedQuery.sha256Hash}; if the hash is unknown
+ * the server answers PersistedQueryNotFound and the client retries with the full query,
+ * which is then registered under that hash.
+ *
+ * Requests without a hash are keyed by the SHA-256 of their query text, so plain
+ * repeated operations skip parsing and validation as well.
+ */
+public class PersistedQueryDocumentProvider extends ApolloPersistedQuerySupport {
+
+    public PersistedQueryDocumentProvider(PersistedQueryCache persistedQueryCache) {
+        super(persistedQueryCache);
+    }
+
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> clientHash = super.getPersistedQueryId(executionInput);
+        if (clientHash.isPresent()) {
+            return clientHash;
+        }
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || query.equals(PERSISTED_QUERY_MARKER)) {
+            return Optional.empty();
+        }
+        return Optional.of(sha256Hex(query));
+    }
+
+    static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
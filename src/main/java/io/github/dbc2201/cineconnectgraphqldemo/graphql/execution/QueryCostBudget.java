@@ -0,0 +1,66 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-client query cost budget over a fixed time window.
+ *
+ * Each client (authenticated user, or remote address for anonymous callers)
+ * may spend at most {@code budget} cost units per window; operations that would
+ * exceed it are rejected until the window rolls over.
+ */
+public class QueryCostBudget {
+
+    private final long budget;
+    private final long windowMillis;
+    private final Clock clock;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private record Window(long startedAt, long spent) {
+    }
+
+    public QueryCostBudget(long budget, Duration window) {
+        this(budget, window, Clock.systemUTC());
+    }
+
+    QueryCostBudget(long budget, Duration window, Clock clock) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Query cost budget must be positive");
+        }
+        this.budget = budget;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Charge {@code cost} to the client if it still fits into the current window.
+     *
+     * @return true if the operation may run, false if the budget is exhausted
+     */
+    public boolean tryConsume(String clientKey, long cost) {
+        long now = clock.millis();
+        boolean[] allowed = {false};
+        windows.compute(clientKey, (key, window) -> {
+            if (window == null || now - window.startedAt() >= windowMillis) {
+                window = new Window(now, 0);
+            }
+            if (cost > budget - window.spent()) {
+                return window;
+            }
+            allowed[0] = true;
+            return new Window(window.startedAt(), window.spent() + cost);
+        });
+        evictExpired(now);
+        return allowed[0];
+    }
+
+    // Keep memory proportional to active clients rather than every client ever seen
+    private void evictExpired(long now) {
+        if (windows.size() > 10_000) {
+            windows.values().removeIf(window -> now - window.startedAt() >= windowMillis);
+        }
+    }
+}
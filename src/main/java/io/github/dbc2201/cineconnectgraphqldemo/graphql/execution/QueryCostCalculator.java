@@ -0,0 +1,107 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Static cost estimate for a GraphQL operation, computed before execution.
+ *
+ * Every field costs 1 each time it is expected to be resolved. List fields multiply
+ * the cost of everything below them: by the {@code first} or {@code size} argument when
+ * the list (or the connection field that owns it) has one, otherwise by a default list size
+ * (the page size the resolvers use when no size is given).
+ *
+ * Example: {@code followers(size: 50) { content { watchlist { content { title } } } }}
+ * resolves {@code title} up to 50 * 20 times and is priced accordingly.
+ */
+public class QueryCostCalculator {
+
+    public static final String SIZE_ARGUMENT = "size";
+    public static final String FIRST_ARGUMENT = "first";
+
+    private final int defaultListSize;
+
+    public QueryCostCalculator(int defaultListSize) {
+        this.defaultListSize = defaultListSize;
+    }
+
+    /**
+     * Estimated cost and maximum field depth of an operation.
+     */
+    public record QueryCost(long cost, int depth) {
+    }
+
+    public QueryCost calculate(GraphQLSchema schema, Document document,
+                               String operationName, CoercedVariables variables) {
+        QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+            .schema(schema)
+            .document(document)
+            .operationName(operationName)
+            .coercedVariables(variables)
+            .build();
+
+        long[] cost = {0};
+        int[] depth = {0};
+        traverser.visitPreOrder(new QueryVisitorStub() {
+            @Override
+            public void visitField(QueryVisitorFieldEnvironment env) {
+                if (env.isTypeNameIntrospectionField()) {
+                    return;
+                }
+                long resolutions = 1;
+                int fieldDepth = 1;
+                for (QueryVisitorFieldEnvironment parent = env.getParentEnvironment();
+                     parent != null;
+                     parent = parent.getParentEnvironment()) {
+                    resolutions = saturatedMultiply(resolutions, fanOut(parent));
+                    fieldDepth++;
+                }
+                cost[0] = saturatedAdd(cost[0], resolutions);
+                depth[0] = Math.max(depth[0], fieldDepth);
+            }
+        });
+        return new QueryCost(cost[0], depth[0]);
+    }
+
+    /**
+     * How many times each child of this field is resolved.
+     */
+    private long fanOut(QueryVisitorFieldEnvironment env) {
+        GraphQLType type = GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType());
+        if (!GraphQLTypeUtil.isList(type)) {
+            return 1;
+        }
+        Integer size = sizeArgument(env);
+        if (size == null && env.getParentEnvironment() != null) {
+            // e.g. MovieConnection.content takes its size from movies(size: ...)
+            size = sizeArgument(env.getParentEnvironment());
+        }
+        return size != null ? Math.max(size, 1) : defaultListSize;
+    }
+
+    // Absurd size arguments must price the query out, not overflow into a small number
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) ? low : Long.MAX_VALUE;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    // first takes precedence over size, matching the connection resolvers
+    private static Integer sizeArgument(QueryVisitorFieldEnvironment env) {
+        if (env.getArguments().get(FIRST_ARGUMENT) instanceof Number first) {
+            return first.intValue();
+        }
+        return env.getArguments().get(SIZE_ARGUMENT) instanceof Number size ? size.intValue() : null;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Field;
+import graphql.language.Selection;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.QueryCostCalculator.QueryCost;
+
+/**
+ * Rejects operations that are too deep, too expensive, or exceed the caller's
+ * cost budget, before any resolver (and therefore any database query) runs.
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private final QueryCostCalculator calculator;
+    private final QueryCostBudget budget;
+    private final int maxDepth;
+    private final long maxCost;
+
+    public QueryCostInstrumentation(QueryCostCalculator calculator, QueryCostBudget budget,
+                                    int maxDepth, long maxCost) {
+        this.calculator = calculator;
+        this.budget = budget;
+        this.maxDepth = maxDepth;
+        this.maxCost = maxCost;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        if (isIntrospectionOnly(context)) {
+            return super.beginExecuteOperation(parameters, state);
+        }
+
+        QueryCost queryCost = calculator.calculate(
+            context.getGraphQLSchema(),
+            context.getDocument(),
+            context.getOperationDefinition().getName(),
+            context.getCoercedVariables());
+
+        if (queryCost.depth() > maxDepth) {
+            throw new AbortExecutionException(
+                "Query depth %d exceeds the maximum of %d".formatted(queryCost.depth(), maxDepth));
+        }
+        if (queryCost.cost() > maxCost) {
+            throw new AbortExecutionException(
+                "Query cost %d exceeds the maximum of %d".formatted(queryCost.cost(), maxCost));
+        }
+
+        String clientKey = context.getGraphQLContext().getOrDefault(ClientIdentityInterceptor.CLIENT_KEY, "anonymous");
+        if (!budget.tryConsume(clientKey, queryCost.cost())) {
+            throw new AbortExecutionException("Query cost budget exhausted, please retry later");
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    // Schema introspection (GraphiQL, codegen) is deep by nature and does not touch the database
+    private static boolean isIntrospectionOnly(ExecutionContext context) {
+        for (Selection<?> selection : context.getOperationDefinition().getSelectionSet().getSelections()) {
+            if (!(selection instanceof Field field) || !field.getName().startsWith("__")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records latency and call counts for every non-trivial resolver
+ * ({@code @QueryMapping}, {@code @SchemaMapping}, DataLoader-backed fields).
+ *
+ * Published as the {@code graphql.resolver} timer, tagged with the operation name,
+ * the field coordinate (e.g. {@code Movie.averageRating}) and the outcome.
+ * Plain property fields are skipped to keep the overhead negligible.
+ *
+ * Operation names are chosen by the client, so only the first {@code maxOperationNames}
+ * distinct names seen get their own tag value; any later new name is tagged {@code other}.
+ * The app's own clients use a fixed set of operations, which are admitted right after startup.
+ */
+public class ResolverMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    public static final String RESOLVER_TIMER = "graphql.resolver";
+
+    static final String ANONYMOUS_OPERATION = "anonymous";
+    static final String OTHER_OPERATION = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxOperationNames;
+    private final Set<String> operationNames = ConcurrentHashMap.newKeySet();
+
+    public ResolverMetricsInstrumentation(MeterRegistry meterRegistry, int maxOperationNames) {
+        this.meterRegistry = meterRegistry;
+        this.maxOperationNames = maxOperationNames;
+    }
+
+    /**
+     * Per-execution state carrying the operation name used to tag field metrics.
+     */
+    static final class OperationState implements InstrumentationState {
+        private volatile String operationName = ANONYMOUS_OPERATION;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new OperationState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        String name = parameters.getExecutionContext().getOperationDefinition().getName();
+        if (name != null && state instanceof OperationState operationState) {
+            operationState.operationName = operationTag(name);
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private String operationTag(String name) {
+        if (operationNames.contains(name)) {
+            return name;
+        }
+        synchronized (operationNames) {
+            if (operationNames.size() < maxOperationNames || operationNames.contains(name)) {
+                operationNames.add(name);
+                return name;
+            }
+        }
+        return OTHER_OPERATION;
+    }
+
+    @Override
+    public FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters,
+                                                                  InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return FieldFetchingInstrumentationContext.NOOP;
+        }
+        String operation = state instanceof OperationState operationState ? operationState.operationName : ANONYMOUS_OPERATION;
+        String field = parameters.getExecutionStepInfo().getObjectType().getName()
+            + "." + parameters.getField().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        return new FieldFetchingInstrumentationContext() {
+            @Override
+            public void onDispatched() {
+            }
+
+            // For DataLoader-backed fields this fires once the batch has completed
+            @Override
+            public void onCompleted(Object result, Throwable throwable) {
+                sample.stop(Timer.builder(RESOLVER_TIMER)
+                    .description("Latency of GraphQL field resolvers")
+                    .tag("operation", operation)
+                    .tag("field", field)
+                    .tag("outcome", throwable == null ? "success" : "error")
+                    .register(meterRegistry));
+            }
+        };
+    }
+}
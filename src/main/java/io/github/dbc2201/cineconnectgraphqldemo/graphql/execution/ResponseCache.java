@@ -0,0 +1,164 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import io.github.dbc2201.cineconnectgraphqldemo.service.EntityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis store for serialized GraphQL responses, with tag-based invalidation.
+ *
+ * Each entry is indexed under the tags of the entities it contains (see
+ * {@link ResponseTagInstrumentation}). When a service publishes an
+ * {@link EntityChangedEvent}, every entry carrying a matching tag is deleted once
+ * the transaction has committed. Entries also expire after a TTL.
+ *
+ * Every eviction bumps a generation counter and stamps it on the evicted tags. A response
+ * is only stored if none of its tags were evicted after its execution started, so a
+ * request that read the old state cannot write it back after the purge.
+ *
+ * Redis being unavailable only disables caching; requests are then executed normally.
+ */
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private static final String ENTRY_PREFIX = "gql:response:";
+    private static final String TAG_PREFIX = "gql:tag:";
+    private static final String TAG_GENERATION_PREFIX = "gql:tag-generation:";
+    private static final String GENERATION_KEY = "gql:generation";
+
+    // KEYS: the entry, then (tag index, tag generation) pairs. ARGV: value, TTL seconds and
+    // the generation read before execution. Nothing is stored if a tag was evicted since.
+    private static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+        for k = 2, #KEYS, 2 do
+            local evicted = redis.call('get', KEYS[k + 1])
+            if evicted and tonumber(evicted) > tonumber(ARGV[3]) then
+                return 0
+            end
+        end
+        redis.call('set', KEYS[1], ARGV[1], 'EX', ARGV[2])
+        for k = 2, #KEYS, 2 do
+            redis.call('sadd', KEYS[k], KEYS[1])
+            redis.call('expire', KEYS[k], ARGV[2])
+        end
+        return 1
+        """, Long.class);
+
+    // KEYS: the generation counter, then (tag index, tag generation) pairs. ARGV: TTL seconds.
+    // Reads and deletes each tag index in one step, so an entry added to the tag
+    // concurrently is either deleted with it or refused by the generation check, never lost.
+    private static final RedisScript<Long> EVICT_SCRIPT = RedisScript.of("""
+        local generation = redis.call('incr', KEYS[1])
+        local deleted = 0
+        for k = 2, #KEYS, 2 do
+            redis.call('set', KEYS[k + 1], generation, 'EX', ARGV[1])
+            local entries = redis.call('smembers', KEYS[k])
+            for i = 1, #entries, 500 do
+                deleted = deleted + redis.call('del', unpack(entries, i, math.min(i + 499, #entries)))
+            end
+            redis.call('del', KEYS[k])
+        end
+        return deleted
+        """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final JsonMapper jsonMapper;
+    private final Duration ttl;
+
+    public ResponseCache(StringRedisTemplate redis, JsonMapper jsonMapper, Duration ttl) {
+        this.redis = redis;
+        this.jsonMapper = jsonMapper;
+        this.ttl = ttl;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> get(String key) {
+        try {
+            String json = redis.opsForValue().get(ENTRY_PREFIX + key);
+            return json != null ? jsonMapper.readValue(json, Map.class) : null;
+        } catch (DataAccessException | JacksonException e) {
+            log.debug("Response cache lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Generation to pass to {@link #put} for a response about to be executed,
+     * or null if Redis is unavailable (the response is then not cached).
+     */
+    public Generation currentGeneration() {
+        try {
+            String value = redis.opsForValue().get(GENERATION_KEY);
+            return new Generation(value != null ? Long.parseLong(value) : 0, System.nanoTime());
+        } catch (DataAccessException e) {
+            log.debug("Response cache generation lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a response unless one of its tags was evicted after {@code generation} was read.
+     */
+    public void put(String key, Map<String, Object> response, Set<String> tags, Generation generation) {
+        // Tag generations expire with the TTL, so they cannot vouch for a longer execution
+        if (Duration.ofNanos(System.nanoTime() - generation.startedAt()).compareTo(ttl) >= 0) {
+            return;
+        }
+        try {
+            // A tag index must live at least as long as the newest entry in it
+            List<String> keys = new ArrayList<>();
+            keys.add(ENTRY_PREFIX + key);
+            for (String tag : tags) {
+                keys.add(TAG_PREFIX + tag);
+                keys.add(TAG_GENERATION_PREFIX + tag);
+            }
+            redis.execute(PUT_SCRIPT, keys, jsonMapper.writeValueAsString(response),
+                String.valueOf(ttl.toSeconds()), String.valueOf(generation.value()));
+        } catch (DataAccessException | JacksonException e) {
+            log.debug("Response cache store failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete every entry tagged with any of the given tags.
+     */
+    public void evict(Set<String> tags) {
+        try {
+            List<String> keys = new ArrayList<>();
+            keys.add(GENERATION_KEY);
+            for (String tag : tags) {
+                keys.add(TAG_PREFIX + tag);
+                keys.add(TAG_GENERATION_PREFIX + tag);
+            }
+            redis.execute(EVICT_SCRIPT, keys, String.valueOf(ttl.toSeconds()));
+        } catch (DataAccessException e) {
+            log.debug("Response cache eviction failed: {}", e.getMessage());
+        }
+    }
+
+    // Runs after commit: purging earlier would let a request that still reads the old
+    // state store it again. Events published outside a transaction are handled at once.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        String entityTag = ResponseTagInstrumentation.entityTag(event.entityType(), event.id());
+        evict(event.membershipChanged() ? Set.of(entityTag, event.entityType()) : Set.of(entityTag));
+    }
+
+    /**
+     * Eviction generation read before a response was executed, and when.
+     */
+    public record Generation(long value, long startedAt) {
+    }
+}
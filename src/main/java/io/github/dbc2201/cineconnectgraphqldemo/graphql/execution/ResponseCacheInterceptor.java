@@ -0,0 +1,119 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionResult;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.github.dbc2201.cineconnectgraphqldemo.security.CineConnectUserDetailsService.CineConnectUserPrincipal;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves repeated anonymous queries (movies, genres, globalFeed, ...) from the response cache.
+ *
+ * Entries are keyed by the normalized document hash, operation name, variables and
+ * auth scope. Only anonymous requests are cached: authenticated responses contain
+ * viewer-specific fields (isFollowedByMe, isHost, ...) whose inputs are not tagged.
+ * Responses with errors and multipart (@defer) requests are never cached, and neither
+ * are responses whose entities were purged while the request was executing.
+ */
+public class ResponseCacheInterceptor implements WebGraphQlInterceptor {
+
+    private static final String ANONYMOUS_SCOPE = "anonymous";
+    private static final String KEY_SEPARATOR = "\u0000";
+
+    private final ResponseCachePolicy policy;
+    private final ResponseCache cache;
+    private final ObjectWriter variablesWriter;
+
+    // APQ clients send only the hash once a query is registered; remember its document key
+    private final Cache<String, String> persistedDocumentKeys;
+
+    public ResponseCacheInterceptor(ResponseCachePolicy policy, ResponseCache cache,
+                                    JsonMapper jsonMapper, long persistedQueryCacheSize) {
+        this.policy = policy;
+        this.cache = cache;
+        this.variablesWriter = jsonMapper.writer(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.persistedDocumentKeys = Caffeine.newBuilder()
+            .maximumSize(persistedQueryCacheSize)
+            .build();
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (!isAnonymous() || MultipartGraphQlHttpHandler.acceptsMultipart(request.getHeaders().getAccept())) {
+            return chain.next(request);
+        }
+        Optional<String> documentKey = documentKey(request);
+        if (documentKey.isEmpty()) {
+            return chain.next(request);
+        }
+
+        String key = cacheKey(documentKey.get(), request, ANONYMOUS_SCOPE);
+        Map<String, Object> cached = cache.get(key);
+        if (cached != null) {
+            ExecutionResult result = ExecutionResult.newExecutionResult().data(cached.get("data")).build();
+            return Mono.just(new WebGraphQlResponse(
+                new DefaultExecutionGraphQlResponse(request.toExecutionInput(), result)));
+        }
+
+        ResponseCache.Generation generation = cache.currentGeneration();
+        if (generation == null) {
+            return chain.next(request);
+        }
+        ResponseTagInstrumentation.Tags tags = new ResponseTagInstrumentation.Tags();
+        request.configureExecutionInput((input, builder) ->
+            builder.graphQLContext(Map.of(ResponseTagInstrumentation.TAGS_KEY, tags)).build());
+        return chain.next(request).doOnNext(response -> {
+            if (response.isValid() && response.getErrors().isEmpty()) {
+                cache.put(key, response.toMap(), tags.values(), generation);
+            }
+        });
+    }
+
+    private Optional<String> documentKey(WebGraphQlRequest request) {
+        String document = request.getDocument();
+        String persistedHash = persistedQueryHash(request);
+        if (document == null || document.isBlank() || document.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+            return persistedHash != null
+                ? Optional.ofNullable(persistedDocumentKeys.getIfPresent(persistedHash))
+                : Optional.empty();
+        }
+        Optional<String> documentKey = policy.documentKey(document, request.getOperationName());
+        if (persistedHash != null) {
+            documentKey.ifPresent(value -> persistedDocumentKeys.put(persistedHash, value));
+        }
+        return documentKey;
+    }
+
+    private String cacheKey(String documentKey, WebGraphQlRequest request, String scope) {
+        String operationName = request.getOperationName() != null ? request.getOperationName() : "";
+        String variables = variablesWriter.writeValueAsString(request.getVariables());
+        return PersistedQueryDocumentProvider.sha256Hex(
+            String.join(KEY_SEPARATOR, documentKey, operationName, variables, scope));
+    }
+
+    private static String persistedQueryHash(WebGraphQlRequest request) {
+        if (request.getExtensions().get("persistedQuery") instanceof Map<?, ?> persistedQuery
+            && persistedQuery.get("sha256Hash") instanceof String hash) {
+            return hash;
+        }
+        return null;
+    }
+
+    private static boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !(authentication.getPrincipal() instanceof CineConnectUserPrincipal);
+    }
+}
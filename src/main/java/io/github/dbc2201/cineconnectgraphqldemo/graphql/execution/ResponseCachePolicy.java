@@ -0,0 +1,77 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decides which operations the response cache may serve, and identifies their documents.
+ *
+ * Only queries whose root fields are all listed as cacheable qualify. Documents are
+ * identified by the hash of their compact printed form, so formatting and comments
+ * do not produce separate cache entries.
+ */
+public class ResponseCachePolicy {
+
+    private static final String TYPENAME = "__typename";
+
+    private final Set<String> cacheableFields;
+
+    public ResponseCachePolicy(Set<String> cacheableFields) {
+        this.cacheableFields = Set.copyOf(cacheableFields);
+    }
+
+    /**
+     * Hash of the normalized document, or empty if the operation must not be cached
+     * (mutation, subscription, uncacheable root field, or a document that does not parse).
+     */
+    public Optional<String> documentKey(String document, String operationName) {
+        if (document == null || document.isBlank()) {
+            return Optional.empty();
+        }
+        Document parsed;
+        try {
+            parsed = Parser.parse(document);
+        } catch (InvalidSyntaxException e) {
+            // Execution reports the syntax error
+            return Optional.empty();
+        }
+        return selectOperation(parsed, operationName)
+            .filter(this::isCacheable)
+            .map(operation -> PersistedQueryDocumentProvider.sha256Hex(AstPrinter.printAstCompact(parsed)));
+    }
+
+    private boolean isCacheable(OperationDefinition operation) {
+        if (operation.getOperation() != OperationDefinition.Operation.QUERY) {
+            return false;
+        }
+        for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+            // Root-level fragments and directives (@skip, @include) are rare; keep the check simple
+            if (!(selection instanceof Field field) || !field.getDirectives().isEmpty()) {
+                return false;
+            }
+            if (!field.getName().equals(TYPENAME) && !cacheableFields.contains(field.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Optional<OperationDefinition> selectOperation(Document document, String operationName) {
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName == null || operationName.isEmpty()) {
+            return operations.size() == 1 ? Optional.of(operations.getFirst()) : Optional.empty();
+        }
+        return operations.stream()
+            .filter(operation -> operationName.equals(operation.getName()))
+            .findFirst();
+    }
+}
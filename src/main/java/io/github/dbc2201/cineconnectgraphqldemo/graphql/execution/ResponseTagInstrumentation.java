@@ -0,0 +1,118 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.schema.PropertyDataFetcher;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which entities an operation touched, so its cached response can be
+ * dropped when one of them changes.
+ *
+ * Every object with an {@code id} yields an entity tag ({@code Movie:42}); every root
+ * list or connection yields a type tag ({@code Movie}) that stands for "lists of movies".
+ * Only operations that carry a {@link Tags} collector in their GraphQLContext are tracked.
+ */
+public class ResponseTagInstrumentation extends SimplePerformantInstrumentation {
+
+    public static final String TAGS_KEY = "cineconnect.responseTags";
+
+    private static final String ID_FIELD = "id";
+    private static final String CONNECTION_CONTENT_FIELD = "content";
+    private static final PropertyDataFetcher<Object> ID_FETCHER = PropertyDataFetcher.fetching(ID_FIELD);
+
+    /**
+     * Tags collected during one execution.
+     */
+    public static final class Tags {
+        private final Set<String> tags = ConcurrentHashMap.newKeySet();
+        private final Set<Object> visited = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        public Set<String> values() {
+            return Set.copyOf(tags);
+        }
+
+        void add(String tag) {
+            tags.add(tag);
+        }
+
+        boolean visit(Object source) {
+            return visited.add(source);
+        }
+    }
+
+    public static String entityTag(String typeName, Object id) {
+        return typeName + ":" + id;
+    }
+
+    @Override
+    public FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters,
+                                                                  InstrumentationState state) {
+        Tags tags = parameters.getExecutionContext().getGraphQLContext().get(TAGS_KEY);
+        if (tags == null) {
+            return FieldFetchingInstrumentationContext.NOOP;
+        }
+        ExecutionStepInfo step = parameters.getExecutionStepInfo();
+        if (step.getPath().getLevel() == 1) {
+            String listType = listElementType(step.getFieldDefinition().getType());
+            if (listType != null) {
+                tags.add(listType);
+            }
+            return FieldFetchingInstrumentationContext.NOOP;
+        }
+        DataFetchingEnvironment environment = parameters.getEnvironment();
+        Object source = environment.getSource();
+        if (source != null && tags.visit(source)) {
+            GraphQLObjectType parentType = step.getObjectType();
+            GraphQLFieldDefinition idField = parentType.getFieldDefinition(ID_FIELD);
+            if (idField != null) {
+                Object id = fetchId(idField, source, environment);
+                if (id != null) {
+                    tags.add(entityTag(parentType.getName(), id));
+                }
+            }
+        }
+        return FieldFetchingInstrumentationContext.NOOP;
+    }
+
+    // Resolved the same way the id field itself is, which works on uninitialized JPA proxies
+    private static Object fetchId(GraphQLFieldDefinition idField, Object source, DataFetchingEnvironment environment) {
+        try {
+            return ID_FETCHER.get(idField, source, () -> environment);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Element type name of a list ({@code [Genre!]!}) or connection ({@code MovieConnection}), else null.
+     */
+    private static String listElementType(GraphQLOutputType type) {
+        GraphQLType unwrapped = GraphQLTypeUtil.unwrapNonNull(type);
+        if (unwrapped instanceof GraphQLList) {
+            return ((GraphQLNamedType) GraphQLTypeUtil.unwrapAll(unwrapped)).getName();
+        }
+        if (unwrapped instanceof GraphQLObjectType objectType) {
+            GraphQLFieldDefinition content = objectType.getFieldDefinition(CONNECTION_CONTENT_FIELD);
+            if (content != null && GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(content.getType()))) {
+                return ((GraphQLNamedType) GraphQLTypeUtil.unwrapAll(content.getType())).getName();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.OperationDefinition;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lets the operations of one HTTP batch share a single DataLoader registry.
+ *
+ * Spring GraphQL creates a registry per operation. The first operation of a batch
+ * publishes its registry under {@link #REGISTRY_KEY}, and later operations execute with
+ * it instead, so entities one operation loaded are served from the loader cache to the
+ * next. After a mutation the shared caches are cleared, so later operations in the
+ * batch do not see the state from before it.
+ */
+public class SharedDataLoaderInstrumentation implements Instrumentation {
+
+    public static final String REGISTRY_KEY = SharedDataLoaderInstrumentation.class.getName() + ".registry";
+
+    @Override
+    public ExecutionInput instrumentExecutionInput(ExecutionInput executionInput,
+                                                   InstrumentationExecutionParameters parameters,
+                                                   InstrumentationState state) {
+        AtomicReference<DataLoaderRegistry> shared = executionInput.getGraphQLContext().get(REGISTRY_KEY);
+        if (shared == null) {
+            return executionInput;
+        }
+        DataLoaderRegistry own = executionInput.getDataLoaderRegistry();
+        DataLoaderRegistry registry = shared.updateAndGet(existing -> existing != null ? existing : own);
+        return registry == own ? executionInput : executionInput.transform(builder -> builder.dataLoaderRegistry(registry));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                        InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        if (!context.getGraphQLContext().hasKey(REGISTRY_KEY)
+            || context.getOperationDefinition().getOperation() != OperationDefinition.Operation.MUTATION) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return SimpleInstrumentationContext.whenCompleted((result, error) ->
+            context.getDataLoaderRegistry().getDataLoaders().forEach(DataLoader::clearAll));
+    }
+}
@@ -1,12 +1,75 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql.type;
 
+import org.springframework.data.domain.Slice;
+
+import java.util.function.LongSupplier;
+
 /**
  * Pagination information for GraphQL connections.
  * Maps to GraphQL PageInfo type.
+ *
+ * Pages are fetched as Slices, so hasNextPage needs no COUNT query. The total is only
+ * counted when the client selects totalElements or totalPages, and at most once.
+ *
+ * endCursor identifies the last item of the page; passing it back as {@code after}
+ * continues with keyset pagination instead of an offset.
  */
-public record PageInfo(
-    boolean hasNextPage,
-    boolean hasPreviousPage,
-    int totalPages,
-    int totalElements
-) {}
+public class PageInfo {
+
+    /**
+     * Page size used when a connection is queried without {@code first} or {@code size}.
+     * The query cost calculator prices size-less lists with the same value.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final boolean hasNextPage;
+    private final boolean hasPreviousPage;
+    private final int pageSize;
+    private final String endCursor;
+    private final LongSupplier totalCounter;
+    private Long total;
+
+    public PageInfo(boolean hasNextPage, boolean hasPreviousPage, int pageSize,
+                    String endCursor, LongSupplier totalCounter) {
+        this.hasNextPage = hasNextPage;
+        this.hasPreviousPage = hasPreviousPage;
+        this.pageSize = pageSize;
+        this.endCursor = endCursor;
+        this.totalCounter = totalCounter;
+    }
+
+    /**
+     * Page info for a slice; one fetched after a cursor always has a previous page.
+     */
+    public static PageInfo of(Slice<?> slice, boolean afterCursor, String endCursor, LongSupplier totalCounter) {
+        return new PageInfo(slice.hasNext(), afterCursor || slice.hasPrevious(), slice.getSize(),
+            endCursor, totalCounter);
+    }
+
+    public boolean hasNextPage() {
+        return hasNextPage;
+    }
+
+    public boolean hasPreviousPage() {
+        return hasPreviousPage;
+    }
+
+    public int totalPages() {
+        return pageSize > 0 ? (int) ((total() + pageSize - 1) / pageSize) : 0;
+    }
+
+    public int totalElements() {
+        return (int) total();
+    }
+
+    public String endCursor() {
+        return endCursor;
+    }
+
+    private synchronized long total() {
+        if (total == null) {
+            total = totalCounter.getAsLong();
+        }
+        return total;
+    }
+}
@@ -2,12 +2,15 @@ package io.github.dbc2201.cineconnectgraphqldemo.repository;
 
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Follower;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,16 +31,38 @@ public interface FollowerRepository extends JpaRepository<Follower, Long> {
     boolean existsByFollowerIdAndFollowingId(Long followerId, Long followingId);
 
     /**
-     * Get all users that a specific user is following.
+     * Get the follow rows of users that a specific user is following, most recent follow first.
+     * The followed user is fetched with each row.
      */
-    @Query("SELECT f.following FROM Follower f WHERE f.follower.id = :userId")
-    Page<User> findFollowingByUserId(Long userId, Pageable pageable);
+    @Query("SELECT f FROM Follower f JOIN FETCH f.following WHERE f.follower.id = :userId " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    Slice<Follower> findFollowingByUserId(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Get all users that follow a specific user.
+     * Get the follow rows of users that follow a specific user, most recent follow first.
+     * The following user is fetched with each row.
      */
-    @Query("SELECT f.follower FROM Follower f WHERE f.following.id = :userId")
-    Page<User> findFollowersByUserId(Long userId, Pageable pageable);
+    @Query("SELECT f FROM Follower f JOIN FETCH f.follower WHERE f.following.id = :userId " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    Slice<Follower> findFollowersByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset pagination: most recent follows first, strictly after the (createdAt, id) of the last follow row seen
+
+    @Query("SELECT f FROM Follower f JOIN FETCH f.following WHERE f.follower.id = :userId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    Slice<Follower> findFollowingByUserIdAfter(@Param("userId") Long userId,
+                                               @Param("createdAt") Instant createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    @Query("SELECT f FROM Follower f JOIN FETCH f.follower WHERE f.following.id = :userId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    Slice<Follower> findFollowersByUserIdAfter(@Param("userId") Long userId,
+                                               @Param("createdAt") Instant createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
 
     /**
      * Count how many users a specific user is following.
@@ -49,6 +74,22 @@ public interface FollowerRepository extends JpaRepository<Follower, Long> {
      */
     long countByFollowingId(Long followingId);
 
+    /**
+     * Count how many users each of the given users is following (for DataLoader).
+     * Users who follow nobody are absent from the result.
+     */
+    @Query("SELECT f.follower.id AS userId, COUNT(f) AS count FROM Follower f " +
+           "WHERE f.follower.id IN :userIds GROUP BY f.follower.id")
+    List<UserCount> countFollowingByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Count how many followers each of the given users has (for DataLoader).
+     * Users without followers are absent from the result.
+     */
+    @Query("SELECT f.following.id AS userId, COUNT(f) AS count FROM Follower f " +
+           "WHERE f.following.id IN :userIds GROUP BY f.following.id")
+    List<UserCount> countFollowersByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     /**
      * Get the IDs of users that a specific user is following.
      * Useful for feed queries.
@@ -56,6 +97,13 @@ public interface FollowerRepository extends JpaRepository<Follower, Long> {
     @Query("SELECT f.following.id FROM Follower f WHERE f.follower.id = :userId")
     List<Long> findFollowingIdsByUserId(Long userId);
 
+    /**
+     * Of the given users, find the IDs of those a specific user is following (for DataLoader).
+     */
+    @Query("SELECT f.following.id FROM Follower f WHERE f.follower.id = :followerId AND f.following.id IN :userIds")
+    List<Long> findFollowingIdsAmong(@Param("followerId") Long followerId,
+                                     @Param("userIds") Collection<Long> userIds);
+
     /**
      * Delete a follow relationship.
      */
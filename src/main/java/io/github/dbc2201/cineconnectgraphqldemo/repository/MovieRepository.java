@@ -3,11 +3,14 @@ package io.github.dbc2201.cineconnectgraphqldemo.repository;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -28,10 +31,23 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      */
     Optional<Movie> findByImdbId(String imdbId);
 
+    /**
+     * Find all movies, one slice at a time (no COUNT query, unlike findAll(Pageable)).
+     */
+    Slice<Movie> findAllBy(Pageable pageable);
+
+    /**
+     * Planner estimate of the number of movies, from table statistics.
+     * Negative if the table has never been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('movies' AS regclass)",
+           nativeQuery = true)
+    long estimateCount();
+
     /**
      * Search movies by title (case-insensitive, partial match).
      */
-    Page<Movie> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+    Slice<Movie> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
     /**
      * Find movies by release year.
@@ -42,13 +58,13 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      * Find movies by genre slug.
      */
     @Query("SELECT m FROM Movie m JOIN m.genres g WHERE g.slug = :genreSlug")
-    Page<Movie> findByGenreSlug(@Param("genreSlug") String genreSlug, Pageable pageable);
+    Slice<Movie> findByGenreSlug(@Param("genreSlug") String genreSlug, Pageable pageable);
 
     /**
      * Find movies by mood name.
      */
     @Query("SELECT m FROM Movie m JOIN m.moods mood WHERE mood.name = :moodName")
-    Page<Movie> findByMoodName(@Param("moodName") String moodName, Pageable pageable);
+    Slice<Movie> findByMoodName(@Param("moodName") String moodName, Pageable pageable);
 
     /**
      * Find movies by language.
@@ -60,8 +76,99 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      */
     Page<Movie> findByDurationMinutesLessThanEqual(Integer maxDuration, Pageable pageable);
 
+    // Keyset pagination: newest first, strictly after the (createdAt, id) of the last movie seen.
+    // The redundant "createdAt <= :createdAt" lets the index scan start at the cursor.
+
+    @Query("SELECT m FROM Movie m WHERE m.createdAt <= :createdAt " +
+           "AND (m.createdAt < :createdAt OR m.id < :id) ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Movie> findAllAfter(@Param("createdAt") Instant createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
+
+    @Query("SELECT m FROM Movie m JOIN m.genres g WHERE g.slug = :genreSlug AND m.createdAt <= :createdAt " +
+           "AND (m.createdAt < :createdAt OR m.id < :id) ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Movie> findByGenreSlugAfter(@Param("genreSlug") String genreSlug,
+                                      @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Query("SELECT m FROM Movie m JOIN m.moods mood WHERE mood.name = :moodName AND m.createdAt <= :createdAt " +
+           "AND (m.createdAt < :createdAt OR m.id < :id) ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Movie> findByMoodNameAfter(@Param("moodName") String moodName,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
+           "AND m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Movie> findByTitleContainingAfter(@Param("title") String title,
+                                            @Param("createdAt") Instant createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    /**
+     * Count movies matching a title search.
+     */
+    long countByTitleContainingIgnoreCase(String title);
+
+    /**
+     * Count movies in a genre.
+     */
+    @Query("SELECT COUNT(m) FROM Movie m JOIN m.genres g WHERE g.slug = :genreSlug")
+    long countByGenreSlug(@Param("genreSlug") String genreSlug);
+
+    /**
+     * Count movies with a mood.
+     */
+    @Query("SELECT COUNT(m) FROM Movie m JOIN m.moods mood WHERE mood.name = :moodName")
+    long countByMoodName(@Param("moodName") String moodName);
+
     /**
      * Batch load movies by their IDs (for DataLoader).
      */
     List<Movie> findAllByIdIn(Set<Long> ids);
+
+    /**
+     * IDs of the movies with the most reviews written since the given time (for cache warm-up).
+     */
+    @Query("SELECT r.movie.id FROM Review r WHERE r.createdAt >= :since " +
+           "GROUP BY r.movie.id ORDER BY COUNT(r) DESC, r.movie.id")
+    List<Long> findMostReviewedIdsSince(@Param("since") Instant since, Pageable pageable);
+
+    /**
+     * Load the genre IDs of several movies in one query (for DataLoader).
+     * Reads only the join table; the genres themselves come from ReferenceDataRegistry.
+     */
+    @Query(value = "SELECT movie_id AS movieId, genre_id AS genreId FROM movie_genres WHERE movie_id IN (:movieIds)",
+           nativeQuery = true)
+    List<MovieGenreId> findGenreIdsByMovieIdIn(@Param("movieIds") Collection<Long> movieIds);
+
+    /**
+     * Load the mood IDs of several movies in one query (for DataLoader).
+     * Reads only the join table; the moods themselves come from ReferenceDataRegistry.
+     */
+    @Query(value = "SELECT movie_id AS movieId, mood_id AS moodId FROM movie_moods WHERE movie_id IN (:movieIds)",
+           nativeQuery = true)
+    List<MovieMoodId> findMoodIdsByMovieIdIn(@Param("movieIds") Collection<Long> movieIds);
+
+    /**
+     * A genre of a specific movie.
+     */
+    interface MovieGenreId {
+
+        Long getMovieId();
+
+        Integer getGenreId();
+    }
+
+    /**
+     * A mood of a specific movie.
+     */
+    interface MovieMoodId {
+
+        Long getMovieId();
+
+        Integer getMoodId();
+    }
 }
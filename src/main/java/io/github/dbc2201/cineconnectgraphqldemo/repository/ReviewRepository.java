@@ -1,15 +1,20 @@
 package io.github.dbc2201.cineconnectgraphqldemo.repository;
 
+import io.github.dbc2201.cineconnectgraphqldemo.domain.ReactionTag;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,17 +31,36 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     /**
      * Find all reviews by a user.
      */
-    Page<Review> findByUserId(Long userId, Pageable pageable);
+    Slice<Review> findByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Find all reviews, one slice at a time (no COUNT query, unlike findAll(Pageable)).
+     */
+    Slice<Review> findAllBy(Pageable pageable);
+
+    /**
+     * Planner estimate of the number of reviews, from table statistics.
+     * Negative if the table has never been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('reviews' AS regclass)",
+           nativeQuery = true)
+    long estimateCount();
 
     /**
      * Find all reviews for a movie.
      */
-    Page<Review> findByMovieId(Long movieId, Pageable pageable);
+    Slice<Review> findByMovieId(Long movieId, Pageable pageable);
+
+    /**
+     * Find all reviews for a movie, fetching their authors in the same query.
+     */
+    @EntityGraph(attributePaths = "user")
+    Slice<Review> findWithUserByMovieId(Long movieId, Pageable pageable);
 
     /**
      * Find reviews by multiple users (for activity feed).
      */
-    Page<Review> findByUserIdIn(Collection<Long> userIds, Pageable pageable);
+    Slice<Review> findByUserIdIn(Collection<Long> userIds, Pageable pageable);
 
     /**
      * Find reviews for a specific movie by users that the current user follows.
@@ -47,12 +71,51 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
                                            @Param("friendIds") Collection<Long> friendIds,
                                            Pageable pageable);
 
+    // Keyset pagination: newest first, strictly after the (createdAt, id) of the last review seen.
+    // The redundant "createdAt <= :createdAt" lets the index scan start at the cursor.
+
+    @Query("SELECT r FROM Review r WHERE r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findAllAfter(@Param("createdAt") Instant createdAt,
+                               @Param("id") Long id,
+                               Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.movie.id = :movieId AND r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findByMovieIdAfter(@Param("movieId") Long movieId,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Review r WHERE r.movie.id = :movieId AND r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findWithUserByMovieIdAfter(@Param("movieId") Long movieId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.user.id IN :userIds AND r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findByUserIdInAfter(@Param("userIds") Collection<Long> userIds,
+                                      @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
     /**
      * Calculate average rating for a movie.
      */
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.movie.id = :movieId")
     Optional<BigDecimal> findAverageRatingByMovieId(@Param("movieId") Long movieId);
 
+    /**
+     * Calculate average rating and review count for several movies in one query (for DataLoader).
+     * Movies without any reviews are absent from the result.
+     */
+    @Query("SELECT r.movie.id AS movieId, AVG(r.rating) AS averageRating, COUNT(r) AS reviewCount " +
+           "FROM Review r WHERE r.movie.id IN :movieIds GROUP BY r.movie.id")
+    List<MovieReviewStats> findReviewStatsByMovieIdIn(@Param("movieIds") Collection<Long> movieIds);
+
     /**
      * Count reviews for a movie.
      */
@@ -63,8 +126,45 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      */
     long countByUserId(Long userId);
 
+    /**
+     * Count reviews for several users in one query (for DataLoader).
+     * Users without reviews are absent from the result.
+     */
+    @Query("SELECT r.user.id AS userId, COUNT(r) AS count FROM Review r " +
+           "WHERE r.user.id IN :userIds GROUP BY r.user.id")
+    List<UserCount> countByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Load the reaction tags of several reviews in one query (for DataLoader).
+     */
+    @Query("SELECT r.id AS reviewId, tag AS reactionTag FROM Review r JOIN r.reactionTags tag " +
+           "WHERE r.id IN :reviewIds")
+    List<ReviewReactionTag> findReactionTagsByReviewIdIn(@Param("reviewIds") Collection<Long> reviewIds);
+
     /**
      * Check if a user has reviewed a movie.
      */
     boolean existsByUserIdAndMovieId(Long userId, Long movieId);
+
+    /**
+     * Aggregated review statistics for a single movie.
+     */
+    interface MovieReviewStats {
+
+        Long getMovieId();
+
+        Double getAverageRating();
+
+        long getReviewCount();
+    }
+
+    /**
+     * A reaction tag of a specific review.
+     */
+    interface ReviewReactionTag {
+
+        Long getReviewId();
+
+        ReactionTag getReactionTag();
+    }
 }
@@ -0,0 +1,12 @@
+package io.github.dbc2201.cineconnectgraphqldemo.repository;
+
+/**
+ * Projection for grouped per-user counts (followers, watchlist items, reviews, ...).
+ * Used by the batched count DataLoaders.
+ */
+public interface UserCount {
+
+    Long getUserId();
+
+    long getCount();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,13 @@ public interface WatchPartyMovieSuggestionRepository extends JpaRepository<Watch
     @Query("SELECT s FROM WatchPartyMovieSuggestion s WHERE s.party.id = :partyId ORDER BY s.voteCount DESC, s.createdAt ASC")
     List<WatchPartyMovieSuggestion> findByPartyIdOrderByVoteCountDesc(@Param("partyId") Long partyId);
 
+    /**
+     * Find suggestions for several parties in one query, ordered by vote count (for DataLoader).
+     */
+    @Query("SELECT s FROM WatchPartyMovieSuggestion s JOIN FETCH s.movie JOIN FETCH s.suggestedBy " +
+           "WHERE s.party.id IN :partyIds ORDER BY s.voteCount DESC, s.createdAt ASC")
+    List<WatchPartyMovieSuggestion> findByPartyIdInOrderByVoteCountDesc(@Param("partyIds") Collection<Long> partyIds);
+
     /**
      * Find the top suggestion (most votes) for a party.
      */
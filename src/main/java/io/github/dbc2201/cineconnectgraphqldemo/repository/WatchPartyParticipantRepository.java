@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,13 @@ public interface WatchPartyParticipantRepository extends JpaRepository<WatchPart
      */
     List<WatchPartyParticipant> findByPartyId(Long partyId);
 
+    /**
+     * Find all participants for several parties in one query (for DataLoader).
+     */
+    @Query("SELECT p FROM WatchPartyParticipant p JOIN FETCH p.user LEFT JOIN FETCH p.votedMovie " +
+           "WHERE p.party.id IN :partyIds ORDER BY p.createdAt ASC")
+    List<WatchPartyParticipant> findByPartyIdIn(@Param("partyIds") Collection<Long> partyIds);
+
     /**
      * Find participants by party and status.
      */
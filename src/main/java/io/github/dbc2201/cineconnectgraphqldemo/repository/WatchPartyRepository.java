@@ -4,12 +4,14 @@ import io.github.dbc2201.cineconnectgraphqldemo.domain.PartyStatus;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchParty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,7 +23,7 @@ public interface WatchPartyRepository extends JpaRepository<WatchParty, Long> {
     /**
      * Find parties hosted by a specific user.
      */
-    Page<WatchParty> findByHostId(Long hostId, Pageable pageable);
+    Slice<WatchParty> findByHostId(Long hostId, Pageable pageable);
 
     /**
      * Find parties by status.
@@ -37,20 +39,64 @@ public interface WatchPartyRepository extends JpaRepository<WatchParty, Long> {
     /**
      * Find upcoming public parties.
      */
-    @Query("SELECT wp FROM WatchParty wp WHERE wp.isPublic = true AND wp.status = 'SCHEDULED' AND wp.scheduledAt > :now ORDER BY wp.scheduledAt ASC")
-    Page<WatchParty> findUpcomingPublicParties(@Param("now") Instant now, Pageable pageable);
+    @Query("SELECT wp FROM WatchParty wp WHERE wp.isPublic = true AND wp.status = 'SCHEDULED' AND wp.scheduledAt > :now ORDER BY wp.scheduledAt ASC, wp.id ASC")
+    Slice<WatchParty> findUpcomingPublicParties(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Keyset page of upcoming public parties, soonest first, strictly after the (scheduledAt, id) of the last party seen.
+     */
+    @Query("SELECT wp FROM WatchParty wp WHERE wp.isPublic = true AND wp.status = 'SCHEDULED' AND wp.scheduledAt > :now " +
+           "AND wp.scheduledAt >= :scheduledAt AND (wp.scheduledAt > :scheduledAt OR wp.id > :id) " +
+           "ORDER BY wp.scheduledAt ASC, wp.id ASC")
+    Slice<WatchParty> findUpcomingPublicPartiesAfter(@Param("now") Instant now,
+                                                     @Param("scheduledAt") Instant scheduledAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    /**
+     * Count upcoming public parties.
+     */
+    @Query("SELECT COUNT(wp) FROM WatchParty wp WHERE wp.isPublic = true AND wp.status = 'SCHEDULED' AND wp.scheduledAt > :now")
+    long countUpcomingPublicParties(@Param("now") Instant now);
+
+    /**
+     * Keyset page of parties hosted by a user, latest first, strictly after the (scheduledAt, id) of the last party seen.
+     */
+    @Query("SELECT wp FROM WatchParty wp WHERE wp.host.id = :hostId AND wp.scheduledAt <= :scheduledAt " +
+           "AND (wp.scheduledAt < :scheduledAt OR wp.id < :id) ORDER BY wp.scheduledAt DESC, wp.id DESC")
+    Slice<WatchParty> findByHostIdAfter(@Param("hostId") Long hostId,
+                                        @Param("scheduledAt") Instant scheduledAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 
     /**
      * Find parties a user is participating in.
      */
-    @Query("SELECT wp FROM WatchParty wp JOIN wp.participants p WHERE p.user.id = :userId ORDER BY wp.scheduledAt DESC")
-    Page<WatchParty> findPartiesForParticipant(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT wp FROM WatchParty wp JOIN wp.participants p WHERE p.user.id = :userId ORDER BY wp.scheduledAt DESC, wp.id DESC")
+    Slice<WatchParty> findPartiesForParticipant(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of parties a user is participating in, strictly after the (scheduledAt, id) of the last party seen.
+     */
+    @Query("SELECT wp FROM WatchParty wp JOIN wp.participants p WHERE p.user.id = :userId " +
+           "AND wp.scheduledAt <= :scheduledAt AND (wp.scheduledAt < :scheduledAt OR wp.id < :id) " +
+           "ORDER BY wp.scheduledAt DESC, wp.id DESC")
+    Slice<WatchParty> findPartiesForParticipantAfter(@Param("userId") Long userId,
+                                                     @Param("scheduledAt") Instant scheduledAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    /**
+     * Count parties a user is participating in.
+     */
+    @Query("SELECT COUNT(wp) FROM WatchParty wp JOIN wp.participants p WHERE p.user.id = :userId")
+    long countPartiesForParticipant(@Param("userId") Long userId);
 
     /**
      * Find parties a user is participating in with specific status.
      */
     @Query("SELECT wp FROM WatchParty wp JOIN wp.participants p WHERE p.user.id = :userId AND wp.status = :status ORDER BY wp.scheduledAt ASC")
-    Page<WatchParty> findPartiesForParticipantByStatus(@Param("userId") Long userId,
+    Slice<WatchParty> findPartiesForParticipantByStatus(@Param("userId") Long userId,
                                                         @Param("status") PartyStatus status,
                                                         Pageable pageable);
 
@@ -61,6 +107,14 @@ public interface WatchPartyRepository extends JpaRepository<WatchParty, Long> {
            "WHERE wp.status = 'LIVE' AND (wp.host.id = :userId OR p.user.id = :userId)")
     List<WatchParty> findLivePartiesForUser(@Param("userId") Long userId);
 
+    /**
+     * Of the given parties, find the IDs of those a user hosts or participates in (for DataLoader).
+     */
+    @Query("SELECT wp.id FROM WatchParty wp WHERE wp.id IN :partyIds AND (wp.host.id = :userId OR " +
+           "wp.id IN (SELECT p.party.id FROM WatchPartyParticipant p WHERE p.user.id = :userId))")
+    List<Long> findParticipatingPartyIds(@Param("userId") Long userId,
+                                         @Param("partyIds") Collection<Long> partyIds);
+
     /**
      * Count parties hosted by a user.
      */
@@ -1,11 +1,16 @@
 package io.github.dbc2201.cineconnectgraphqldemo.repository;
 
 import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchlistItem;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,13 +32,31 @@ public interface WatchlistRepository extends JpaRepository<WatchlistItem, Long>
     /**
      * Get a user's watchlist, ordered by most recently added.
      */
-    Page<WatchlistItem> findByUserIdOrderByAddedAtDesc(Long userId, Pageable pageable);
+    Slice<WatchlistItem> findByUserIdOrderByAddedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of a user's watchlist, strictly after the (addedAt, id) of the last item seen.
+     */
+    @Query("SELECT w FROM WatchlistItem w WHERE w.user.id = :userId AND w.addedAt <= :addedAt " +
+           "AND (w.addedAt < :addedAt OR w.id < :id) ORDER BY w.addedAt DESC, w.id DESC")
+    Slice<WatchlistItem> findByUserIdAfter(@Param("userId") Long userId,
+                                           @Param("addedAt") Instant addedAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
 
     /**
      * Count items in a user's watchlist.
      */
     long countByUserId(Long userId);
 
+    /**
+     * Count watchlist items for several users in one query (for DataLoader).
+     * Users with an empty watchlist are absent from the result.
+     */
+    @Query("SELECT w.user.id AS userId, COUNT(w) AS count FROM WatchlistItem w " +
+           "WHERE w.user.id IN :userIds GROUP BY w.user.id")
+    List<UserCount> countByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     /**
      * Delete a movie from a user's watchlist.
      */
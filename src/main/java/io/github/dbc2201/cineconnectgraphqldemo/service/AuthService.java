@@ -1,5 +1,6 @@
 package io.github.dbc2201.cineconnectgraphqldemo.service;
 
+import io.github.dbc2201.cineconnectgraphqldemo.cache.NegativeLookupCache;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.UserRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.security.JwtTokenProvider;
@@ -17,13 +18,16 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final NegativeLookupCache negativeLookupCache;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       JwtTokenProvider jwtTokenProvider) {
+                       JwtTokenProvider jwtTokenProvider,
+                       NegativeLookupCache negativeLookupCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.negativeLookupCache = negativeLookupCache;
     }
 
     /**
@@ -47,6 +51,7 @@ public class AuthService {
         }
 
         user = userRepository.save(user);
+        negativeLookupCache.forget(UserService.MISSING_USERNAME, UserService.usernameKey(username));
 
         return createAuthResult(user);
     }
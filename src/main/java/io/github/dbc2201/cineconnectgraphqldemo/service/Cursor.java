@@ -0,0 +1,51 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position in a keyset-paginated list: the sort timestamp and ID of the last item seen.
+ *
+ * Clients receive it as an opaque string (PageInfo.endCursor) and pass it back
+ * as the {@code after} argument to continue from that item.
+ */
+public record Cursor(Instant timestamp, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public Cursor {
+        if (timestamp == null || id == null) {
+            throw new IllegalArgumentException("Cursor requires a timestamp and an id");
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encoded cursor of the last item in a page, or null if the page is empty.
+     */
+    public static <T> String endOf(List<T> items, Function<T, Cursor> position) {
+        return items.isEmpty() ? null : position.apply(items.getLast()).encode();
+    }
+
+    public static Cursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+            return new Cursor(Instant.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+}
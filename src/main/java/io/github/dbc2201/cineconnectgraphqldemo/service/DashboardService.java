@@ -1,16 +1,15 @@
 package io.github.dbc2201.cineconnectgraphqldemo.service;
 
-import io.github.dbc2201.cineconnectgraphqldemo.config.RedisConfig;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.PartyStatus;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchParty;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.*;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -42,41 +41,50 @@ public class DashboardService {
         this.movieRepository = movieRepository;
     }
 
+    // User dashboard fields are separate methods so each one is only computed when
+    // selected, and independent fields can run concurrently (see VirtualThreadConfig).
+
+    public long getReviewCount(Long userId) {
+        return reviewRepository.countByUserId(userId);
+    }
+
+    public long getFollowerCount(Long userId) {
+        return followerRepository.countByFollowingId(userId);
+    }
+
+    public long getFollowingCount(Long userId) {
+        return followerRepository.countByFollowerId(userId);
+    }
+
+    public long getWatchlistCount(Long userId) {
+        return watchlistRepository.countByUserId(userId);
+    }
+
+    public long getHostedPartiesCount(Long userId) {
+        return watchPartyRepository.countByHostId(userId);
+    }
+
     /**
-     * Get dashboard statistics for a user.
+     * The user's five most recent reviews.
      */
-    public UserDashboard getUserDashboard(Long userId) {
-        // Basic counts
-        long reviewCount = reviewRepository.countByUserId(userId);
-        long followerCount = followerRepository.countByFollowingId(userId);
-        long followingCount = followerRepository.countByFollowerId(userId);
-        long watchlistCount = watchlistRepository.countByUserId(userId);
-        long hostedPartiesCount = watchPartyRepository.countByHostId(userId);
-
-        // Recent activity
-        List<Review> recentReviews = reviewRepository.findByUserId(userId,
+    public List<Review> getRecentReviews(Long userId) {
+        return reviewRepository.findByUserId(userId,
             PageRequest.of(0, 5, Sort.by("createdAt").descending())).getContent();
+    }
 
-        // Upcoming parties (hosted or participating)
-        List<WatchParty> upcomingParties = watchPartyRepository.findPartiesForParticipantByStatus(
+    /**
+     * Up to five scheduled parties the user hosts or participates in.
+     */
+    public List<WatchParty> getUpcomingParties(Long userId) {
+        return watchPartyRepository.findPartiesForParticipantByStatus(
             userId, PartyStatus.SCHEDULED, PageRequest.of(0, 5)).getContent();
-
-        return new UserDashboard(
-            reviewCount,
-            followerCount,
-            followingCount,
-            watchlistCount,
-            hostedPartiesCount,
-            recentReviews,
-            upcomingParties
-        );
     }
 
     /**
-     * Get platform-wide statistics.
+     * Compute platform-wide statistics; five full-table counts, so callers should go
+     * through PlatformStatsService, which serves them from the cache.
      */
-    @Cacheable(value = RedisConfig.CACHE_STATS, key = "'platform'")
-    public PlatformStats getPlatformStats() {
+    public PlatformStats computePlatformStats() {
         long totalUsers = userRepository.count();
         long totalMovies = movieRepository.count();
         long totalReviews = reviewRepository.count();
@@ -88,31 +96,25 @@ public class DashboardService {
             totalMovies,
             totalReviews,
             scheduledParties,
-            liveParties
+            liveParties,
+            Instant.now()
         );
     }
 
     /**
-     * User dashboard data.
+     * The dashboard of a user; its fields are resolved individually from the user ID.
      */
-    public record UserDashboard(
-        long reviewCount,
-        long followerCount,
-        long followingCount,
-        long watchlistCount,
-        long hostedPartiesCount,
-        List<Review> recentReviews,
-        List<WatchParty> upcomingParties
-    ) {}
+    public record UserDashboard(Long userId) {}
 
     /**
-     * Platform-wide statistics.
+     * Platform-wide statistics, as counted at {@code computedAt}.
      */
     public record PlatformStats(
         long totalUsers,
         long totalMovies,
         long totalReviews,
         long scheduledParties,
-        long liveParties
+        long liveParties,
+        Instant computedAt
     ) {}
 }
@@ -0,0 +1,25 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+/**
+ * Published by services when an entity is created, changed or deleted.
+ *
+ * Listeners (e.g. the GraphQL response cache) use it to drop data derived from the
+ * entity. {@code membershipChanged} means lists of that type may have gained or lost
+ * an item, so cached lists must be dropped too, not only copies of this entity.
+ */
+public record EntityChangedEvent(String entityType, Long id, boolean membershipChanged) {
+
+    /**
+     * The entity's own fields changed; lists containing it keep the same members.
+     */
+    public static EntityChangedEvent updated(Class<?> entityType, Long id) {
+        return new EntityChangedEvent(entityType.getSimpleName(), id, false);
+    }
+
+    /**
+     * The entity was created or deleted, or changed in a way that moves it between lists.
+     */
+    public static EntityChangedEvent membershipChanged(Class<?> entityType, Long id) {
+        return new EntityChangedEvent(entityType.getSimpleName(), id, true);
+    }
+}
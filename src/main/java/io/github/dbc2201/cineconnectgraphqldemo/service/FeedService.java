@@ -2,9 +2,11 @@ package io.github.dbc2201.cineconnectgraphqldemo.service;
 
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository;
-import org.springframework.data.domain.Page;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.UserCount;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +21,9 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class FeedService {
 
+    // Above this many rows the global feed total comes from table statistics instead of COUNT(*)
+    private static final long ESTIMATED_COUNT_THRESHOLD = 100_000;
+
     private final ReviewRepository reviewRepository;
     private final SocialService socialService;
 
@@ -34,31 +39,86 @@ public class FeedService {
      * @param userId The user requesting the feed
      * @param page Page number (0-indexed)
      * @param size Page size
-     * @return Page of reviews from followed users, ordered by most recent
+     * @return Slice of reviews from followed users, ordered by most recent
      */
-    public Page<Review> getFriendsFeed(Long userId, int page, int size) {
+    public Slice<Review> getFriendsFeed(Long userId, int page, int size) {
         // Get IDs of users this user is following
         List<Long> followingIds = socialService.getFollowingIds(userId);
 
         if (followingIds.isEmpty()) {
             // Return empty page if not following anyone
-            return Page.empty();
+            return new SliceImpl<>(List.of(), PageRequest.of(page, size), false);
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
         return reviewRepository.findByUserIdIn(followingIds, pageable);
     }
 
+    /**
+     * Continue the friends feed after a cursor (keyset pagination).
+     *
+     * @param userId The user requesting the feed
+     * @param after Position of the last review already seen
+     * @param size Page size
+     * @return Slice of older reviews from followed users
+     */
+    public Slice<Review> getFriendsFeedAfter(Long userId, Cursor after, int size) {
+        List<Long> followingIds = socialService.getFollowingIds(userId);
+
+        if (followingIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), PageRequest.of(0, size), false);
+        }
+
+        return reviewRepository.findByUserIdInAfter(followingIds, after.timestamp(), after.id(),
+            PageRequest.of(0, size));
+    }
+
+    /**
+     * Count all reviews in a user's friends feed.
+     */
+    public long countFriendsFeed(Long userId) {
+        List<Long> followingIds = socialService.getFollowingIds(userId);
+
+        if (followingIds.isEmpty()) {
+            return 0;
+        }
+
+        return reviewRepository.countByUserIdIn(followingIds).stream()
+            .mapToLong(UserCount::getCount)
+            .sum();
+    }
+
     /**
      * Get the global feed showing recent reviews from all users.
      * Useful for discovery when user isn't following many people.
      *
      * @param page Page number (0-indexed)
      * @param size Page size
-     * @return Page of all recent reviews
+     * @return Slice of all recent reviews
+     */
+    public Slice<Review> getGlobalFeed(int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        return reviewRepository.findAllBy(pageable);
+    }
+
+    /**
+     * Continue the global feed after a cursor (keyset pagination).
+     * Unlike offset paging, the cost does not grow with how far the client has scrolled.
+     *
+     * @param after Position of the last review already seen
+     * @param size Page size
+     * @return Slice of older reviews
+     */
+    public Slice<Review> getGlobalFeedAfter(Cursor after, int size) {
+        return reviewRepository.findAllAfter(after.timestamp(), after.id(), PageRequest.of(0, size));
+    }
+
+    /**
+     * Count all reviews in the global feed.
+     * On a large table this is the planner's estimate rather than an exact COUNT(*).
      */
-    public Page<Review> getGlobalFeed(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return reviewRepository.findAll(pageable);
+    public long countGlobalFeed() {
+        long estimate = reviewRepository.estimateCount();
+        return estimate >= ESTIMATED_COUNT_THRESHOLD ? estimate : reviewRepository.count();
     }
 }
@@ -1,22 +1,32 @@
 package io.github.dbc2201.cineconnectgraphqldemo.service;
 
+import io.github.dbc2201.cineconnectgraphqldemo.cache.NegativeLookupCache;
+import io.github.dbc2201.cineconnectgraphqldemo.config.RedisConfig;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Genre;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Mood;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.GenreRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.MoodRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository;
-import org.springframework.data.domain.Page;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository.MovieGenreId;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository.MovieMoodId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for Movie operations.
@@ -29,49 +39,139 @@ public class MovieService {
     private final MovieRepository movieRepository;
     private final GenreRepository genreRepository;
     private final MoodRepository moodRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final NegativeLookupCache negativeLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String MISSING_MOVIE = "movie";
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    // Above this many rows an unfiltered total comes from table statistics instead of COUNT(*)
+    private static final long ESTIMATED_COUNT_THRESHOLD = 100_000;
 
     public MovieService(MovieRepository movieRepository,
                         GenreRepository genreRepository,
-                        MoodRepository moodRepository) {
+                        MoodRepository moodRepository,
+                        ReferenceDataRegistry referenceData,
+                        NegativeLookupCache negativeLookupCache,
+                        ApplicationEventPublisher eventPublisher) {
         this.movieRepository = movieRepository;
         this.genreRepository = genreRepository;
         this.moodRepository = moodRepository;
+        this.referenceData = referenceData;
+        this.negativeLookupCache = negativeLookupCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Entities hold lazy proxies that cannot be cached, so the cache holds immutable snapshots.
+    // Genres and moods are read as IDs from the join tables; the rows come from ReferenceDataRegistry.
+    @Cacheable(value = RedisConfig.CACHE_MOVIES, key = "#id", unless = "#result == null")
+    public Optional<MovieSnapshot> findById(Long id) {
+        // Misses are not cached above; a tombstone keeps probes for unknown IDs off the database
+        if (negativeLookupCache.isKnownMissing(MISSING_MOVIE, id)) {
+            return Optional.empty();
+        }
+        Optional<MovieSnapshot> movie = findSnapshotsByIdIn(Set.of(id)).stream().findFirst();
+        if (movie.isEmpty()) {
+            negativeLookupCache.markMissing(MISSING_MOVIE, id);
+        }
+        return movie;
     }
 
-    // Note: Not caching JPA entities directly as they have lazy-loaded proxies
-    // that don't serialize well. Consider caching DTOs instead in production.
-    public Optional<Movie> findById(Long id) {
-        return movieRepository.findById(id);
+    /**
+     * Snapshots of several movies, in three queries regardless of their number.
+     * Bypasses the cache; used to fill it in bulk (see CacheWarmer).
+     */
+    public List<MovieSnapshot> findSnapshotsByIdIn(Set<Long> ids) {
+        List<Movie> movies = ids.isEmpty() ? List.of() : movieRepository.findAllByIdIn(ids);
+        if (movies.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> movieIds = movies.stream().map(Movie::getId).collect(Collectors.toSet());
+        Map<Long, List<Integer>> genreIds = movieRepository.findGenreIdsByMovieIdIn(movieIds).stream()
+            .collect(Collectors.groupingBy(MovieGenreId::getMovieId,
+                Collectors.mapping(MovieGenreId::getGenreId, Collectors.toList())));
+        Map<Long, List<Integer>> moodIds = movieRepository.findMoodIdsByMovieIdIn(movieIds).stream()
+            .collect(Collectors.groupingBy(MovieMoodId::getMovieId,
+                Collectors.mapping(MovieMoodId::getMoodId, Collectors.toList())));
+        return movies.stream()
+            .map(movie -> MovieSnapshot.of(movie,
+                genreIds.getOrDefault(movie.getId(), List.of()),
+                moodIds.getOrDefault(movie.getId(), List.of())))
+            .toList();
+    }
+
+    /**
+     * The movies with the most reviews since the given time, most reviewed first.
+     */
+    public List<Long> findMostReviewedIds(Instant since, int limit) {
+        return movieRepository.findMostReviewedIdsSince(since, PageRequest.of(0, limit));
     }
 
-    public Page<Movie> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return movieRepository.findAll(pageable);
+    public Slice<Movie> findAll(int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
+        return movieRepository.findAllBy(pageable);
     }
 
-    public Page<Movie> findByGenreSlug(String genreSlug, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+    public Slice<Movie> findByGenreSlug(String genreSlug, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
         return movieRepository.findByGenreSlug(genreSlug, pageable);
     }
 
-    public Page<Movie> findByMoodName(String moodName, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+    public Slice<Movie> findByMoodName(String moodName, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
         return movieRepository.findByMoodName(moodName, pageable);
     }
 
-    public Page<Movie> searchByTitle(String query, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+    public Slice<Movie> searchByTitle(String query, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
         return movieRepository.findByTitleContainingIgnoreCase(query, pageable);
     }
 
-    // Note: Genre and Mood are simple entities but still JPA-managed.
-    // Caching can be enabled with proper DTO conversion for production use.
+    // ========== Keyset Pagination ==========
+    // Same ordering as the offset queries above, continuing after a cursor instead of skipping rows.
+
+    public Slice<Movie> findAllAfter(Cursor after, int size) {
+        return movieRepository.findAllAfter(after.timestamp(), after.id(), PageRequest.of(0, size));
+    }
+
+    public Slice<Movie> findByGenreSlugAfter(String genreSlug, Cursor after, int size) {
+        return movieRepository.findByGenreSlugAfter(genreSlug, after.timestamp(), after.id(), PageRequest.of(0, size));
+    }
+
+    public Slice<Movie> findByMoodNameAfter(String moodName, Cursor after, int size) {
+        return movieRepository.findByMoodNameAfter(moodName, after.timestamp(), after.id(), PageRequest.of(0, size));
+    }
+
+    public Slice<Movie> searchByTitleAfter(String query, Cursor after, int size) {
+        return movieRepository.findByTitleContainingAfter(query, after.timestamp(), after.id(), PageRequest.of(0, size));
+    }
+
+    public long countAll() {
+        long estimate = movieRepository.estimateCount();
+        return estimate >= ESTIMATED_COUNT_THRESHOLD ? estimate : movieRepository.count();
+    }
+
+    public long countByGenreSlug(String genreSlug) {
+        return movieRepository.countByGenreSlug(genreSlug);
+    }
+
+    public long countByMoodName(String moodName) {
+        return movieRepository.countByMoodName(moodName);
+    }
+
+    public long countByTitle(String query) {
+        return movieRepository.countByTitleContainingIgnoreCase(query);
+    }
+
+    // Served from memory; the tables are read once at startup
     public List<Genre> findAllGenres() {
-        return genreRepository.findAllByOrderByNameAsc();
+        return referenceData.allGenres();
     }
 
     public List<Mood> findAllMoods() {
-        return moodRepository.findAllByOrderByNameAsc();
+        return referenceData.allMoods();
     }
 
     @Transactional
@@ -104,10 +204,14 @@ public class MovieService {
             moods.forEach(movie::addMood);
         }
 
-        return movieRepository.save(movie);
+        Movie saved = movieRepository.save(movie);
+        negativeLookupCache.forget(MISSING_MOVIE, saved.getId());
+        eventPublisher.publishEvent(EntityChangedEvent.membershipChanged(Movie.class, saved.getId()));
+        return saved;
     }
 
     @Transactional
+    @CacheEvict(value = RedisConfig.CACHE_MOVIES, key = "#id")
     public Optional<Movie> updateMovie(Long id, String title, String originalTitle,
                                        Integer releaseYear, Integer durationMinutes,
                                        String synopsis, String posterUrl, String backdropUrl,
@@ -136,6 +240,8 @@ public class MovieService {
                     .forEach(movie::addMood);
             }
 
+            // Title, genre and mood changes can move the movie between filtered lists
+            eventPublisher.publishEvent(EntityChangedEvent.membershipChanged(Movie.class, id));
             return movieRepository.save(movie);
         });
     }
@@ -0,0 +1,68 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.MovieRef;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable copy of a Movie for the {@code movies} cache.
+ *
+ * Entities cannot be cached as they are: their lazy genre and mood collections are
+ * Hibernate proxies bound to a session. A snapshot carries plain values, with the
+ * associations reduced to ID lists, and is safe to share and serialize.
+ *
+ * Field names match the GraphQL Movie type, so it can be returned as a Movie.
+ */
+public record MovieSnapshot(
+    Long id,
+    String title,
+    String originalTitle,
+    Integer releaseYear,
+    Integer durationMinutes,
+    String synopsis,
+    String posterUrl,
+    String backdropUrl,
+    String language,
+    Integer tmdbId,
+    String imdbId,
+    List<Integer> genreIds,
+    List<Integer> moodIds,
+    Instant createdAt,
+    Instant updatedAt
+) implements MovieRef, Serializable {
+
+    public MovieSnapshot {
+        genreIds = List.copyOf(genreIds);
+        moodIds = List.copyOf(moodIds);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Copy a movie with the IDs of its genres and moods, loaded separately from the join tables.
+     */
+    public static MovieSnapshot of(Movie movie, List<Integer> genreIds, List<Integer> moodIds) {
+        return new MovieSnapshot(
+            movie.getId(),
+            movie.getTitle(),
+            movie.getOriginalTitle(),
+            movie.getReleaseYear(),
+            movie.getDurationMinutes(),
+            movie.getSynopsis(),
+            movie.getPosterUrl(),
+            movie.getBackdropUrl(),
+            movie.getLanguage(),
+            movie.getTmdbId(),
+            movie.getImdbId(),
+            genreIds.stream().sorted().toList(),
+            moodIds.stream().sorted().toList(),
+            movie.getCreatedAt(),
+            movie.getUpdatedAt());
+    }
+}
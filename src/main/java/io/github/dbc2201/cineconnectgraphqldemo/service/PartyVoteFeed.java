@@ -0,0 +1,75 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import io.github.dbc2201.cineconnectgraphqldemo.domain.WatchPartyMovieSuggestion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live vote tallies for watch parties, pushed to {@code partyVotes} subscribers.
+ *
+ * Each party with subscribers has one shared feed: a burst of votes is coalesced into
+ * at most {@code max-updates-per-second} tally reloads, and every reload is sent to all
+ * of the party's subscribers. New subscribers get the latest tally straight away.
+ * A feed is dropped when its last subscriber leaves.
+ */
+@Service
+public class PartyVoteFeed {
+
+    private final WatchPartyService watchPartyService;
+    private final Duration updateInterval;
+
+    private final Sinks.Many<Long> changedParties = Sinks.many().multicast().directBestEffort();
+    private final Map<Long, Flux<List<WatchPartyMovieSuggestion>>> feeds = new ConcurrentHashMap<>();
+
+    public PartyVoteFeed(WatchPartyService watchPartyService,
+                         @Value("${cineconnect.graphql.subscriptions.party-votes.max-updates-per-second:2}") int maxUpdatesPerSecond) {
+        if (maxUpdatesPerSecond <= 0) {
+            throw new IllegalArgumentException("Max updates per second must be positive");
+        }
+        this.watchPartyService = watchPartyService;
+        this.updateInterval = Duration.ofMillis(1000 / maxUpdatesPerSecond);
+    }
+
+    /**
+     * The current tally, then the new tally whenever votes change.
+     */
+    public Flux<List<WatchPartyMovieSuggestion>> votes(Long partyId) {
+        if (watchPartyService.findById(partyId).isEmpty()) {
+            throw new IllegalArgumentException("Party not found");
+        }
+        return feeds.computeIfAbsent(partyId, this::createFeed);
+    }
+
+    // Published after commit, so the reload sees the new counts
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVotesChanged(PartyVotesChangedEvent event) {
+        changedParties.emitNext(event.partyId(), Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    private Flux<List<WatchPartyMovieSuggestion>> createFeed(Long partyId) {
+        // Only this feed may unregister itself: by the time it ends, a new one may be registered
+        AtomicReference<Flux<List<WatchPartyMovieSuggestion>>> self = new AtomicReference<>();
+        Flux<List<WatchPartyMovieSuggestion>> feed = changedParties.asFlux()
+            .filter(partyId::equals)
+            .sample(updateInterval)
+            .startWith(partyId)
+            .concatMap(id -> Mono.fromCallable(() -> watchPartyService.getMovieSuggestions(id))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .doFinally(signal -> feeds.remove(partyId, self.get()))
+            .replay(1)
+            .refCount();
+        self.set(feed);
+        return feed;
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+/**
+ * Published by WatchPartyService when a party's movie suggestions or their vote
+ * counts change. Feeds the {@code partyVotes} subscription (see PartyVoteFeed).
+ */
+public record PartyVotesChangedEvent(Long partyId) {
+}
@@ -0,0 +1,51 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import io.github.dbc2201.cineconnectgraphqldemo.cache.RedisRefreshLock;
+import io.github.dbc2201.cineconnectgraphqldemo.cache.RefreshAheadCache;
+import io.github.dbc2201.cineconnectgraphqldemo.cache.TwoTierCacheManager;
+import io.github.dbc2201.cineconnectgraphqldemo.config.RedisConfig;
+import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService.PlatformStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Serves platform-wide statistics without a recomputation stampede.
+ *
+ * The stats take five full-table counts. Instead of expiring on every node at once,
+ * the cached value is recomputed in the background by a single node once it is older
+ * than the refresh interval, while all readers keep getting the previous value.
+ */
+@Service
+public class PlatformStatsService {
+
+    private static final String CACHE_KEY = "platform";
+    private static final String LOCK_KEY = "lock:stats:platform";
+
+    private final RefreshAheadCache<PlatformStats> platformStats;
+
+    public PlatformStatsService(DashboardService dashboardService,
+                                TwoTierCacheManager cacheManager,
+                                StringRedisTemplate redisTemplate,
+                                @Value("${cineconnect.cache.platform-stats.refresh-after:5m}") Duration refreshAfter,
+                                @Value("${cineconnect.cache.platform-stats.lock-timeout:30s}") Duration lockTimeout) {
+        this.platformStats = new RefreshAheadCache<>(
+            // A refresh replaces the stats other nodes hold in their near tier
+            cacheManager.getOverwritingCache(RedisConfig.CACHE_STATS),
+            CACHE_KEY,
+            PlatformStats.class,
+            dashboardService::computePlatformStats,
+            PlatformStats::computedAt,
+            refreshAfter,
+            new RedisRefreshLock(redisTemplate, LOCK_KEY, lockTimeout),
+            task -> Thread.ofVirtual().name("platform-stats-refresh").start(task),
+            Clock.systemUTC());
+    }
+
+    public PlatformStats getPlatformStats() {
+        return platformStats.get();
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Genre;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Mood;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.GenreRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.MoodRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory copy of the genre and mood tables.
+ *
+ * Both are small, seeded by migrations and practically never change, so they are read
+ * once at startup and movies refer to them by ID only. The tables are reloaded when a
+ * change to a genre or mood is published, or when a movie refers to an ID that is not
+ * known yet (e.g. a row inserted by another instance).
+ *
+ * Genre and Mood have no setters or lazy associations, so the detached instances are
+ * safe to share between requests.
+ */
+@Service
+public class ReferenceDataRegistry {
+
+    private final GenreRepository genreRepository;
+    private final MoodRepository moodRepository;
+
+    private volatile ReferenceIndex<Genre> genres;
+    private volatile ReferenceIndex<Mood> moods;
+
+    public ReferenceDataRegistry(GenreRepository genreRepository, MoodRepository moodRepository) {
+        this.genreRepository = genreRepository;
+        this.moodRepository = moodRepository;
+    }
+
+    // Initial load, once the bean is fully constructed
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    public List<Genre> allGenres() {
+        return genres.all();
+    }
+
+    public List<Mood> allMoods() {
+        return moods.all();
+    }
+
+    /**
+     * The genres with the given IDs, ordered by name.
+     */
+    public List<Genre> genres(Collection<Integer> ids) {
+        if (!genres.containsAll(ids)) {
+            refresh();
+        }
+        return genres.resolve(ids);
+    }
+
+    /**
+     * The moods with the given IDs, ordered by name.
+     */
+    public List<Mood> moods(Collection<Integer> ids) {
+        if (!moods.containsAll(ids)) {
+            refresh();
+        }
+        return moods.resolve(ids);
+    }
+
+    public synchronized void refresh() {
+        genres = ReferenceIndex.of(genreRepository.findAll(), Genre::getId, Comparator.comparing(Genre::getName));
+        moods = ReferenceIndex.of(moodRepository.findAll(), Mood::getId, Comparator.comparing(Mood::getName));
+    }
+
+    // Runs after commit, so the reload sees the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType().equals(Genre.class.getSimpleName())
+            || event.entityType().equals(Mood.class.getSimpleName())) {
+            refresh();
+        }
+    }
+}
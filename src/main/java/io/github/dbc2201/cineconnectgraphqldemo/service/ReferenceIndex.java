@@ -0,0 +1,72 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable lookup table for a small set of reference rows (genres, moods).
+ *
+ * Rows are stored in an array indexed by their ID, so resolving an ID list is a plain
+ * array read per ID. Resolved lists keep the display order given at construction.
+ */
+public final class ReferenceIndex<T> {
+
+    private final Object[] byId;
+    private final int[] rankById;
+    private final List<T> ordered;
+
+    private ReferenceIndex(Object[] byId, int[] rankById, List<T> ordered) {
+        this.byId = byId;
+        this.rankById = rankById;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Index the rows by ID; IDs are small identity values, so the array stays compact.
+     */
+    public static <T> ReferenceIndex<T> of(Collection<T> rows, ToIntFunction<T> id, Comparator<T> order) {
+        List<T> ordered = rows.stream().sorted(order).toList();
+        int maxId = ordered.stream().mapToInt(id).max().orElse(-1);
+        Object[] byId = new Object[maxId + 1];
+        int[] rankById = new int[maxId + 1];
+        for (int rank = 0; rank < ordered.size(); rank++) {
+            T row = ordered.get(rank);
+            int rowId = id.applyAsInt(row);
+            if (rowId < 0) {
+                throw new IllegalArgumentException("Reference IDs must not be negative: " + rowId);
+            }
+            byId[rowId] = row;
+            rankById[rowId] = rank;
+        }
+        return new ReferenceIndex<>(byId, rankById, ordered);
+    }
+
+    public List<T> all() {
+        return ordered;
+    }
+
+    public boolean containsAll(Collection<Integer> ids) {
+        return ids.stream().allMatch(this::contains);
+    }
+
+    /**
+     * The rows with the given IDs in display order; unknown IDs are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> resolve(Collection<Integer> ids) {
+        List<Integer> known = ids.stream()
+            .filter(this::contains)
+            .sorted(Comparator.comparingInt(id -> rankById[id]))
+            .toList();
+        List<T> rows = new ArrayList<>(known.size());
+        known.forEach(id -> rows.add((T) byId[id]));
+        return List.copyOf(rows);
+    }
+
+    private boolean contains(Integer id) {
+        return id != null && id >= 0 && id < byId.length && byId[id] != null;
+    }
+}
@@ -7,9 +7,10 @@ import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.UserRepository;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,26 +31,43 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ReviewService(ReviewRepository reviewRepository,
                          UserRepository userRepository,
-                         MovieRepository movieRepository) {
+                         MovieRepository movieRepository,
+                         ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.movieRepository = movieRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<Review> findById(Long id) {
         return reviewRepository.findById(id);
     }
 
-    public Page<Review> findByMovieId(Long movieId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return reviewRepository.findByMovieId(movieId, pageable);
+    /**
+     * Reviews for a movie, newest first.
+     *
+     * @param withUser also fetch each review's author in the same query, for callers that will render it
+     */
+    public Slice<Review> findByMovieId(Long movieId, int page, int size, boolean withUser) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        return withUser
+            ? reviewRepository.findWithUserByMovieId(movieId, pageable)
+            : reviewRepository.findByMovieId(movieId, pageable);
     }
 
-    public Page<Review> findByUserId(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+    public Slice<Review> findByMovieIdAfter(Long movieId, Cursor after, int size, boolean withUser) {
+        Pageable pageable = PageRequest.of(0, size);
+        return withUser
+            ? reviewRepository.findWithUserByMovieIdAfter(movieId, after.timestamp(), after.id(), pageable)
+            : reviewRepository.findByMovieIdAfter(movieId, after.timestamp(), after.id(), pageable);
+    }
+
+    public Slice<Review> findByUserId(Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
         return reviewRepository.findByUserId(userId, pageable);
     }
 
@@ -82,7 +100,9 @@ public class ReviewService {
             review.setReactionTags(new HashSet<>(reactionTags));
         }
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        publishReviewListChange(saved, userId, movieId);
+        return saved;
     }
 
     @Transactional
@@ -95,16 +115,27 @@ public class ReviewService {
             if (containsSpoiler != null) review.setContainsSpoiler(containsSpoiler);
             if (reactionTags != null) review.setReactionTags(new HashSet<>(reactionTags));
 
+            // The movie's average rating depends on the review
+            eventPublisher.publishEvent(EntityChangedEvent.updated(Review.class, reviewId));
+            eventPublisher.publishEvent(EntityChangedEvent.updated(Movie.class, review.getMovie().getId()));
             return reviewRepository.save(review);
         });
     }
 
     @Transactional
     public boolean deleteReview(Long reviewId) {
-        if (reviewRepository.existsById(reviewId)) {
-            reviewRepository.deleteById(reviewId);
+        return reviewRepository.findById(reviewId).map(review -> {
+            reviewRepository.delete(review);
+            publishReviewListChange(review, review.getUser().getId(), review.getMovie().getId());
             return true;
-        }
-        return false;
+        }).orElse(false);
+    }
+
+    // A review appearing or disappearing changes the feeds, the movie's rating and
+    // review count, and the author's review count
+    private void publishReviewListChange(Review review, Long userId, Long movieId) {
+        eventPublisher.publishEvent(EntityChangedEvent.membershipChanged(Review.class, review.getId()));
+        eventPublisher.publishEvent(EntityChangedEvent.updated(Movie.class, movieId));
+        eventPublisher.publishEvent(EntityChangedEvent.updated(User.class, userId));
     }
 }
@@ -8,9 +8,9 @@ import io.github.dbc2201.cineconnectgraphqldemo.repository.FollowerRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.UserRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.WatchlistRepository;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -87,21 +87,37 @@ public class SocialService {
     }
 
     /**
-     * Get users that a specific user is following.
+     * Get the follows of a specific user (the followed users are loaded), most recent first.
      */
-    public Page<User> getFollowing(Long userId, int page, int size) {
+    public Slice<Follower> getFollowing(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return followerRepository.findFollowingByUserId(userId, pageable);
     }
 
     /**
-     * Get followers of a specific user.
+     * Get the follows of a specific user's followers (the followers are loaded), most recent first.
      */
-    public Page<User> getFollowers(Long userId, int page, int size) {
+    public Slice<Follower> getFollowers(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return followerRepository.findFollowersByUserId(userId, pageable);
     }
 
+    /**
+     * Continue the following list after a cursor (keyset pagination).
+     */
+    public Slice<Follower> getFollowingAfter(Long userId, Cursor after, int size) {
+        return followerRepository.findFollowingByUserIdAfter(userId, after.timestamp(), after.id(),
+            PageRequest.of(0, size));
+    }
+
+    /**
+     * Continue the followers list after a cursor (keyset pagination).
+     */
+    public Slice<Follower> getFollowersAfter(Long userId, Cursor after, int size) {
+        return followerRepository.findFollowersByUserIdAfter(userId, after.timestamp(), after.id(),
+            PageRequest.of(0, size));
+    }
+
     /**
      * Count users that a specific user is following.
      */
@@ -174,9 +190,17 @@ public class SocialService {
     /**
      * Get user's watchlist.
      */
-    public Page<WatchlistItem> getWatchlist(Long userId, int page, int size) {
+    public Slice<WatchlistItem> getWatchlist(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return watchlistRepository.findByUserIdOrderByAddedAtDesc(userId, pageable);
+        return watchlistRepository.findByUserIdOrderByAddedAtDescIdDesc(userId, pageable);
+    }
+
+    /**
+     * Continue a user's watchlist after a cursor (keyset pagination).
+     */
+    public Slice<WatchlistItem> getWatchlistAfter(Long userId, Cursor after, int size) {
+        return watchlistRepository.findByUserIdAfter(userId, after.timestamp(), after.id(),
+            PageRequest.of(0, size));
     }
 
     /**
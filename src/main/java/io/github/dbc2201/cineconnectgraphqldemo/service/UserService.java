@@ -1,10 +1,12 @@
 package io.github.dbc2201.cineconnectgraphqldemo.service;
 
+import io.github.dbc2201.cineconnectgraphqldemo.cache.NegativeLookupCache;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -15,18 +17,33 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class UserService {
 
+    static final String MISSING_USERNAME = "username";
+
     private final UserRepository userRepository;
+    private final NegativeLookupCache negativeLookupCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, NegativeLookupCache negativeLookupCache) {
         this.userRepository = userRepository;
+        this.negativeLookupCache = negativeLookupCache;
     }
 
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
 
+    /**
+     * Usernames that do not exist are remembered for a short while (see NegativeLookupCache).
+     */
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsernameIgnoreCase(username);
+        String key = usernameKey(username);
+        if (negativeLookupCache.isKnownMissing(MISSING_USERNAME, key)) {
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findByUsernameIgnoreCase(username);
+        if (user.isEmpty()) {
+            negativeLookupCache.markMissing(MISSING_USERNAME, key);
+        }
+        return user;
     }
 
     public Optional<User> findByEmail(String email) {
@@ -40,4 +57,9 @@ public class UserService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    // Lookups ignore case, so tombstones do too
+    static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
 }
@@ -2,9 +2,10 @@ package io.github.dbc2201.cineconnectgraphqldemo.service;
 
 import io.github.dbc2201.cineconnectgraphqldemo.domain.*;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.*;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,17 +27,20 @@ public class WatchPartyService {
     private final WatchPartyMovieSuggestionRepository suggestionRepository;
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public WatchPartyService(WatchPartyRepository partyRepository,
                              WatchPartyParticipantRepository participantRepository,
                              WatchPartyMovieSuggestionRepository suggestionRepository,
                              UserRepository userRepository,
-                             MovieRepository movieRepository) {
+                             MovieRepository movieRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.partyRepository = partyRepository;
         this.participantRepository = participantRepository;
         this.suggestionRepository = suggestionRepository;
         this.userRepository = userRepository;
         this.movieRepository = movieRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // ========== Party CRUD Operations ==========
@@ -78,6 +82,7 @@ public class WatchPartyService {
         hostParticipant.setJoinedAt(Instant.now());
         participantRepository.save(hostParticipant);
 
+        partyChanged(party.getId());
         return party;
     }
 
@@ -112,6 +117,7 @@ public class WatchPartyService {
         if (maxParticipants != null) party.setMaxParticipants(maxParticipants);
         if (isPublic != null) party.setPublic(isPublic);
 
+        partyChanged(partyId);
         return partyRepository.save(party);
     }
 
@@ -131,6 +137,7 @@ public class WatchPartyService {
         }
 
         party.setStatus(PartyStatus.CANCELLED);
+        partyChanged(partyId);
         return partyRepository.save(party);
     }
 
@@ -161,6 +168,7 @@ public class WatchPartyService {
             }
         }
 
+        partyChanged(partyId);
         return partyRepository.save(party);
     }
 
@@ -181,6 +189,7 @@ public class WatchPartyService {
 
         party.setStatus(PartyStatus.ENDED);
         party.setEndedAt(Instant.now());
+        partyChanged(partyId);
         return partyRepository.save(party);
     }
 
@@ -190,7 +199,7 @@ public class WatchPartyService {
      * Get upcoming public parties.
      */
     @Transactional(readOnly = true)
-    public Page<WatchParty> getUpcomingPublicParties(int page, int size) {
+    public Slice<WatchParty> getUpcomingPublicParties(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return partyRepository.findUpcomingPublicParties(Instant.now(), pageable);
     }
@@ -199,8 +208,8 @@ public class WatchPartyService {
      * Get parties hosted by a user.
      */
     @Transactional(readOnly = true)
-    public Page<WatchParty> getPartiesHostedBy(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("scheduledAt").descending());
+    public Slice<WatchParty> getPartiesHostedBy(Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "scheduledAt", "id"));
         return partyRepository.findByHostId(userId, pageable);
     }
 
@@ -208,11 +217,52 @@ public class WatchPartyService {
      * Get parties a user is participating in.
      */
     @Transactional(readOnly = true)
-    public Page<WatchParty> getPartiesForUser(Long userId, int page, int size) {
+    public Slice<WatchParty> getPartiesForUser(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return partyRepository.findPartiesForParticipant(userId, pageable);
     }
 
+    /**
+     * Continue upcoming public parties after a cursor (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public Slice<WatchParty> getUpcomingPublicPartiesAfter(Cursor after, int size) {
+        return partyRepository.findUpcomingPublicPartiesAfter(Instant.now(), after.timestamp(), after.id(),
+            PageRequest.of(0, size));
+    }
+
+    /**
+     * Continue parties hosted by a user after a cursor (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public Slice<WatchParty> getPartiesHostedByAfter(Long userId, Cursor after, int size) {
+        return partyRepository.findByHostIdAfter(userId, after.timestamp(), after.id(), PageRequest.of(0, size));
+    }
+
+    /**
+     * Continue parties a user is participating in after a cursor (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public Slice<WatchParty> getPartiesForUserAfter(Long userId, Cursor after, int size) {
+        return partyRepository.findPartiesForParticipantAfter(userId, after.timestamp(), after.id(),
+            PageRequest.of(0, size));
+    }
+
+    @Transactional(readOnly = true)
+    public long countUpcomingPublicParties() {
+        return partyRepository.countUpcomingPublicParties(Instant.now());
+    }
+
+    @Transactional(readOnly = true)
+    public long countPartiesHostedBy(Long userId) {
+        return partyRepository.countByHostId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public long countPartiesForUser(Long userId) {
+        return partyRepository.countPartiesForParticipant(userId);
+    }
+
     /**
      * Get live parties for a user.
      */
@@ -250,6 +300,7 @@ public class WatchPartyService {
         participant.setUser(invitee);
         participant.setStatus(ParticipantStatus.INVITED);
 
+        partyChanged(partyId);
         return participantRepository.save(participant);
     }
 
@@ -273,6 +324,7 @@ public class WatchPartyService {
                 throw new IllegalStateException("Already joined this party");
             }
             participant.join();
+            partyChanged(partyId);
             return participantRepository.save(participant);
         }
 
@@ -293,6 +345,7 @@ public class WatchPartyService {
         participant.setUser(user);
         participant.join();
 
+        partyChanged(partyId);
         return participantRepository.save(participant);
     }
 
@@ -308,6 +361,7 @@ public class WatchPartyService {
         }
 
         participant.decline();
+        partyChanged(partyId);
         return participantRepository.save(participant);
     }
 
@@ -326,6 +380,7 @@ public class WatchPartyService {
             .orElseThrow(() -> new IllegalArgumentException("Not a participant in this party"));
 
         participant.leave();
+        partyChanged(partyId);
         return participantRepository.save(participant);
     }
 
@@ -385,6 +440,8 @@ public class WatchPartyService {
         suggestion.setSuggestedBy(user);
         suggestion.setVoteCount(1); // Suggester's vote counts
 
+        partyChanged(partyId);
+        eventPublisher.publishEvent(new PartyVotesChangedEvent(partyId));
         return suggestionRepository.save(suggestion);
     }
 
@@ -425,6 +482,8 @@ public class WatchPartyService {
             participantRepository.save(participant);
         }
 
+        partyChanged(partyId);
+        eventPublisher.publishEvent(new PartyVotesChangedEvent(partyId));
         return suggestionRepository.save(suggestion);
     }
 
@@ -433,7 +492,7 @@ public class WatchPartyService {
      */
     @Transactional(readOnly = true)
     public List<WatchPartyMovieSuggestion> getMovieSuggestions(Long partyId) {
-        return suggestionRepository.findByPartyIdOrderByVoteCountDesc(partyId);
+        return suggestionRepository.findByPartyIdInOrderByVoteCountDesc(List.of(partyId));
     }
 
     /**
@@ -455,6 +514,13 @@ public class WatchPartyService {
             .orElseThrow(() -> new IllegalArgumentException("Movie not found"));
 
         party.setMovie(movie);
+        partyChanged(partyId);
         return partyRepository.save(party);
     }
+
+    // Status, schedule, participant and vote changes can all move a party between
+    // (or within) the party lists, so every mutation counts as a membership change
+    private void partyChanged(Long partyId) {
+        eventPublisher.publishEvent(EntityChangedEvent.membershipChanged(WatchParty.class, partyId));
+    }
 }
@@ -0,0 +1,23 @@
+-- V5: Composite indexes for keyset (cursor) pagination
+-- Each index matches a connection's ORDER BY, with id as the tiebreaker,
+-- so "after cursor" queries start the index scan at the cursor instead of skipping rows.
+
+CREATE INDEX idx_movies_created_at_id ON movies(created_at DESC, id DESC);
+
+CREATE INDEX idx_reviews_created_at_id ON reviews(created_at DESC, id DESC);
+CREATE INDEX idx_reviews_movie_created_at_id ON reviews(movie_id, created_at DESC, id DESC);
+CREATE INDEX idx_reviews_user_created_at_id ON reviews(user_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_watchlist_user_added_at_id ON watchlist(user_id, added_at DESC, id DESC);
+
+CREATE INDEX idx_followers_follower_created_at_id ON followers(follower_id, created_at DESC, id DESC);
+CREATE INDEX idx_followers_following_created_at_id ON followers(following_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_watch_parties_scheduled_id ON watch_parties(scheduled_at, id);
+CREATE INDEX idx_watch_parties_host_scheduled_id ON watch_parties(host_id, scheduled_at DESC, id DESC);
+
+-- Superseded by the composite indexes above
+DROP INDEX idx_reviews_created_at;
+DROP INDEX idx_watchlist_added_at;
+DROP INDEX idx_followers_follower_id;
+DROP INDEX idx_followers_following_id;
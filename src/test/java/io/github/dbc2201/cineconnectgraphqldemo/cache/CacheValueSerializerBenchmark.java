@@ -0,0 +1,93 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService.PlatformStats;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Size and speed of the compact cache format compared to JDK serialization and JSON.
+ *
+ * Timing is only meaningful on a quiet machine, so it runs on demand:
+ * {@code mvn test -Dtest=CacheValueSerializerBenchmark -Dbenchmark=true}
+ */
+@DisplayName("Cache Value Serializer Benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CacheValueSerializerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("should be smaller than JDK and JSON and report timings")
+    void compareSerializers() {
+        compare("MovieSnapshot", CompactRedisSerializerTest.MOVIE, MovieSnapshot.class);
+        compare("PlatformStats", CompactRedisSerializerTest.STATS, PlatformStats.class);
+    }
+
+    private void compare(String label, Object value, Class<?> type) {
+        Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+        serializers.put("compact", new CompactRedisSerializer(CacheValueCodecs.all()));
+        serializers.put("json", json(type));
+        if (value instanceof Serializable) {
+            serializers.put("jdk", new JdkSerializationRedisSerializer());
+        }
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        serializers.forEach((name, serializer) -> {
+            byte[] bytes = serializer.serialize(value);
+            assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+            sizes.put(name, bytes.length);
+
+            run(serializer, value, WARMUP_ITERATIONS);
+            long[] nanos = run(serializer, value, MEASURED_ITERATIONS);
+            System.out.printf("%-14s %-8s %5d bytes  encode %6.0f ns  decode %6.0f ns%n", label, name, bytes.length,
+                (double) nanos[0] / MEASURED_ITERATIONS, (double) nanos[1] / MEASURED_ITERATIONS);
+        });
+
+        sizes.forEach((name, size) -> assertThat(sizes.get("compact")).isLessThanOrEqualTo(size));
+    }
+
+    private static long[] run(RedisSerializer<Object> serializer, Object value, int iterations) {
+        byte[] bytes = serializer.serialize(value);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = serializer.serialize(value);
+        }
+        long encode = System.nanoTime() - start;
+        Object decoded = null;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            decoded = serializer.deserialize(bytes);
+        }
+        long decode = System.nanoTime() - start;
+        assertThat(decoded).isEqualTo(value);
+        return new long[] {encode, decode};
+    }
+
+    private RedisSerializer<Object> json(Class<?> type) {
+        return new RedisSerializer<>() {
+            @Override
+            public byte[] serialize(Object value) {
+                return jsonMapper.writeValueAsBytes(value);
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                return jsonMapper.readValue(bytes, type);
+            }
+        };
+    }
+}
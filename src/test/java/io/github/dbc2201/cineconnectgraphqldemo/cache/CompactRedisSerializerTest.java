@@ -0,0 +1,83 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import io.github.dbc2201.cineconnectgraphqldemo.service.DashboardService.PlatformStats;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the compact cache value format.
+ */
+@DisplayName("Compact Redis Serializer")
+class CompactRedisSerializerTest {
+
+    static final MovieSnapshot MOVIE = new MovieSnapshot(42L, "Inception", null, 2010, 148,
+        "A thief who steals corporate secrets through dream-sharing technology.",
+        "https://image.tmdb.org/t/p/w500/inception.jpg", null, "en", 27205, "tt1375666",
+        List.of(1, 4, 17), List.of(3), Instant.parse("2024-01-15T10:15:30.123456Z"), Instant.parse("2024-02-01T08:00:00Z"));
+
+    static final PlatformStats STATS = new PlatformStats(12_345, 6_789, 98_765, 12, 3, Instant.parse("2024-02-01T08:05:00Z"));
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(CacheValueCodecs.all());
+
+    @Test
+    @DisplayName("should round-trip cached values, including null fields")
+    void shouldRoundTrip() {
+        assertThat(serializer.deserialize(serializer.serialize(MOVIE))).isEqualTo(MOVIE);
+        assertThat(serializer.deserialize(serializer.serialize(STATS))).isEqualTo(STATS);
+        assertThat(serializer.deserialize(serializer.serialize(Boolean.TRUE))).isEqualTo(Boolean.TRUE);
+        assertThat(serializer.serialize(STATS)).hasSizeLessThan(30);
+    }
+
+    @Test
+    @DisplayName("should fall back to JDK serialization and read entries written before the format")
+    void shouldReadJdkValues() {
+        assertThat(serializer.deserialize(serializer.serialize("plain string"))).isEqualTo("plain string");
+
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(MOVIE);
+        assertThat(serializer.deserialize(legacy)).isEqualTo(MOVIE);
+    }
+
+    @Test
+    @DisplayName("should treat entries from a newer layout version as a miss")
+    void shouldIgnoreUnknownVersions() {
+        byte[] newer = new CompactWriter(16)
+            .writeByte(CompactRedisSerializer.FORMAT_MARKER)
+            .writeUnsignedVarLong(CacheValueCodecs.PLATFORM_STATS_TYPE_ID)
+            .writeUnsignedVarLong(3)
+            .toByteArray();
+
+        assertThat(serializer.deserialize(newer)).isNull();
+    }
+
+    @Test
+    @DisplayName("should read entries written with an older layout version")
+    void shouldReadOlderVersions() {
+        byte[] version1 = new CompactWriter(16)
+            .writeByte(CompactRedisSerializer.FORMAT_MARKER)
+            .writeUnsignedVarLong(CacheValueCodecs.PLATFORM_STATS_TYPE_ID)
+            .writeUnsignedVarLong(1)
+            .writeLong(10).writeLong(20).writeLong(30).writeLong(1).writeLong(0)
+            .toByteArray();
+
+        assertThat(serializer.deserialize(version1)).isEqualTo(new PlatformStats(10, 20, 30, 1, 0, Instant.EPOCH));
+    }
+
+    @Test
+    @DisplayName("should reject truncated entries")
+    void shouldRejectTruncatedValues() {
+        byte[] bytes = serializer.serialize(MOVIE);
+
+        assertThatThrownBy(() -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 5)))
+            .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for background refresh of a single cached value.
+ */
+@DisplayName("Refresh-Ahead Cache")
+class RefreshAheadCacheTest {
+
+    private record Stats(int version, Instant computedAt) {
+    }
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private Instant now = START;
+    private boolean lockAvailable = true;
+    private boolean loaderFails;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Queue<Runnable> background = new ArrayDeque<>();
+    private final ConcurrentMapCache store = new ConcurrentMapCache("stats");
+
+    private final RefreshAheadCache<Stats> cache = new RefreshAheadCache<>(
+        store, "platform", Stats.class, this::load, Stats::computedAt, Duration.ofMinutes(5),
+        new RefreshLock() {
+            @Override
+            public boolean tryLock() {
+                return lockAvailable;
+            }
+
+            @Override
+            public void unlock() {
+            }
+        },
+        background::add, () -> now);
+
+    private Stats load() {
+        if (loaderFails) {
+            throw new IllegalStateException("database unavailable");
+        }
+        return new Stats(loads.incrementAndGet(), now);
+    }
+
+    private void runBackground() {
+        while (!background.isEmpty()) {
+            background.poll().run();
+        }
+    }
+
+    @Test
+    @DisplayName("should serve the previous value while a single refresh runs in the background")
+    void shouldRefreshInBackground() {
+        store.put("platform", new Stats(0, START));
+        now = START.plus(Duration.ofMinutes(6));
+
+        assertThat(cache.get().version()).isZero();
+        assertThat(cache.get().version()).isZero();
+        assertThat(background).hasSize(1);
+
+        runBackground();
+
+        assertThat(cache.get().version()).isEqualTo(1);
+        assertThat(store.get("platform", Stats.class)).isEqualTo(new Stats(1, now));
+        assertThat(background).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should leave the refresh to the node holding the lock")
+    void shouldNotRecomputeWithoutLock() {
+        store.put("platform", new Stats(0, START));
+        now = START.plus(Duration.ofMinutes(6));
+        lockAvailable = false;
+
+        cache.get();
+        runBackground();
+
+        assertThat(loads).hasValue(0);
+        assertThat(cache.get().version()).isZero();
+    }
+
+    @Test
+    @DisplayName("should keep the last good value when a refresh fails or the store loses it")
+    void shouldKeepLastGoodValue() {
+        store.put("platform", new Stats(0, START));
+        assertThat(cache.get().version()).isZero();
+
+        now = START.plus(Duration.ofMinutes(6));
+        loaderFails = true;
+        store.clear();
+        cache.get();
+        runBackground();
+
+        assertThat(cache.get()).isEqualTo(new Stats(0, START));
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.dbc2201.cineconnectgraphqldemo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the near / remote cache tiers.
+ */
+@DisplayName("Two-Tier Cache")
+class TwoTierCacheTest {
+
+    private final ConcurrentMapCache remote = new ConcurrentMapCache("movies");
+    private final List<String> published = new ArrayList<>();
+    private final TwoTierCache cache = new TwoTierCache(
+        "movies", Caffeine.newBuilder().maximumSize(10).build(), remote, published::add);
+
+    @Test
+    @DisplayName("should serve reads from the near tier once filled")
+    void shouldServeFromNearTier() {
+        remote.put(1L, "Inception");
+        assertThat(cache.get(1L, String.class)).isEqualTo("Inception");
+
+        remote.put(1L, "Changed elsewhere");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("Inception");
+    }
+
+    @Test
+    @DisplayName("should write both tiers and announce changes")
+    void shouldPublishChanges() {
+        cache.overwriting().put(1L, "Inception");
+        assertThat(remote.get(1L, String.class)).isEqualTo("Inception");
+
+        cache.evict(2L);
+        cache.clear();
+
+        assertThat(published).containsExactly("1", "2", null);
+        assertThat(remote.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should not announce fills")
+    void shouldNotPublishFills() {
+        cache.put(1L, "Inception");
+        cache.get(2L, () -> "Interstellar");
+
+        assertThat(remote.get(1L, String.class)).isEqualTo("Inception");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reload from the remote tier after a local eviction")
+    void shouldDropNearEntryOnInvalidation() {
+        cache.put(1L, "Inception");
+        remote.put(1L, "Updated on another node");
+
+        cache.evictLocal("1");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("Updated on another node");
+        assertThat(published).isEmpty();
+    }
+}
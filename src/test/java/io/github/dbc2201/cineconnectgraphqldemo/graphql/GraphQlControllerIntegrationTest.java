@@ -1,10 +1,20 @@
 package io.github.dbc2201.cineconnectgraphqldemo.graphql;
 
+import io.github.dbc2201.cineconnectgraphqldemo.cache.CacheWarmer;
+import io.github.dbc2201.cineconnectgraphqldemo.config.RedisConfig;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Follower;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Review;
 import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResponseCache;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.ResponseTagInstrumentation;
+import io.github.dbc2201.cineconnectgraphqldemo.repository.FollowerRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.MovieRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.ReviewRepository;
 import io.github.dbc2201.cineconnectgraphqldemo.repository.UserRepository;
+import io.github.dbc2201.cineconnectgraphqldemo.service.MovieSnapshot;
+import io.github.dbc2201.cineconnectgraphqldemo.service.WatchPartyService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,15 +22,44 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
-
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -40,6 +79,24 @@ class GraphQlControllerIntegrationTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private FollowerRepository followerRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private WatchPartyService watchPartyService;
+
+    @Autowired
+    private ResponseCache responseCache;
+
     private Movie testMovie;
     private User testUser;
 
@@ -47,6 +104,10 @@ class GraphQlControllerIntegrationTest {
     void setUp() {
         restClient = RestClient.create("http://localhost:" + port);
 
+        // Fixtures are written through repositories, which do not purge cached responses
+        redisTemplate.delete(redisTemplate.keys("gql:*"));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
         reviewRepository.deleteAll();
         movieRepository.deleteAll();
         userRepository.deleteAll();
@@ -75,6 +136,16 @@ class GraphQlControllerIntegrationTest {
             .body(Map.class);
     }
 
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> executeRequest(Map<String, Object> requestBody) {
+        return restClient.post()
+            .uri("/graphql")
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(requestBody)
+            .retrieve()
+            .body(Map.class);
+    }
+
     @SuppressWarnings("unchecked")
     private Map<String, Object> getData(Map<String, Object> response) {
         return (Map<String, Object>) response.get("data");
@@ -97,6 +168,47 @@ class GraphQlControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Cache Warm-Up Tests")
+    @TestPropertySource(properties = "cineconnect.cache.warm-up.enabled=true")
+    class CacheWarmUpTests {
+
+        @Autowired
+        private CacheWarmer cacheWarmer;
+
+        @Test
+        @DisplayName("should preload recently reviewed movies into the cache")
+        void shouldWarmMovieCache() {
+            Movie unreviewed = movieRepository.save(new Movie("Unreviewed Movie"));
+            reviewRepository.save(new Review(testUser, testMovie, new BigDecimal("4.5")));
+
+            cacheWarmer.run(null);
+
+            Cache movies = cacheManager.getCache(RedisConfig.CACHE_MOVIES);
+            assertThat(movies.get(testMovie.getId(), MovieSnapshot.class))
+                .extracting(MovieSnapshot::title).isEqualTo("Integration Test Movie");
+            assertThat(movies.get(unreviewed.getId())).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Platform Stats Tests")
+    class PlatformStatsTests {
+
+        @Test
+        @DisplayName("should compute platform stats and keep them in the Redis cache")
+        @SuppressWarnings("unchecked")
+        void shouldCachePlatformStats() {
+            Map<String, Object> response = executeGraphQL("query { platformStats { totalUsers totalMovies } }");
+
+            assertThat(response).doesNotContainKey("errors");
+            assertThat((Map<String, Object>) getData(response).get("platformStats"))
+                .containsEntry("totalUsers", 1)
+                .containsEntry("totalMovies", 1);
+            assertThat(redisTemplate.hasKey("stats::platform")).isTrue();
+        }
+    }
+
     @Nested
     @DisplayName("Genre Query Tests")
     class GenreQueryTests {
@@ -160,6 +272,52 @@ class GraphQlControllerIntegrationTest {
             assertThat(data.get("movie")).isNull();
         }
 
+        @Test
+        @DisplayName("should serve movie by id from the cache until it is updated")
+        @SuppressWarnings("unchecked")
+        void shouldCacheMovieById() {
+            String query = "query { movie(id: %d) { title genres { name } reviewCount } }".formatted(testMovie.getId());
+            assertThat((Map<String, Object>) getData(executeGraphQL(query)).get("movie"))
+                .containsEntry("title", "Integration Test Movie")
+                .containsEntry("genres", List.of())
+                .containsEntry("reviewCount", 0);
+
+            // Written through the repository, so the cached snapshot is not evicted
+            testMovie.setTitle("Changed Behind The Cache");
+            movieRepository.save(testMovie);
+            assertThat((Map<String, Object>) getData(executeGraphQL(query)).get("movie"))
+                .containsEntry("title", "Integration Test Movie");
+
+            executeGraphQL("mutation { updateMovie(id: %d, input: { title: \"Renamed Movie\" }) { id } }"
+                .formatted(testMovie.getId()));
+            assertThat((Map<String, Object>) getData(executeGraphQL(query)).get("movie"))
+                .containsEntry("title", "Renamed Movie");
+        }
+
+        @Test
+        @DisplayName("should resolve genres by name for single movies and lists")
+        @SuppressWarnings("unchecked")
+        void shouldResolveGenresFromRegistry() {
+            List<Map<String, Object>> genres = (List<Map<String, Object>>) getData(
+                executeGraphQL("query { genres { id slug } }")).get("genres");
+            Map<String, Object> idsBySlug = new HashMap<>();
+            genres.forEach(genre -> idsBySlug.put((String) genre.get("slug"), genre.get("id")));
+
+            executeGraphQL("mutation { updateMovie(id: %d, input: { genreIds: [%s, %s] }) { id } }"
+                .formatted(testMovie.getId(), idsBySlug.get("comedy"), idsBySlug.get("action")));
+
+            List<Map<String, String>> expected = List.of(Map.of("name", "Action"), Map.of("name", "Comedy"));
+            Map<String, Object> movie = (Map<String, Object>) getData(executeGraphQL(
+                "query { movie(id: %d) { genres { name } } }".formatted(testMovie.getId()))).get("movie");
+            assertThat(movie).containsEntry("genres", expected);
+
+            Map<String, Object> movies = (Map<String, Object>) getData(executeGraphQL(
+                "query { movies { content { genres { name } } } }")).get("movies");
+            assertThat((List<Map<String, Object>>) movies.get("content"))
+                .extracting(content -> content.get("genres"))
+                .containsExactly(expected);
+        }
+
         @Test
         @DisplayName("should return paginated movies")
         @SuppressWarnings("unchecked")
@@ -216,6 +374,24 @@ class GraphQlControllerIntegrationTest {
             Map<String, Object> user = (Map<String, Object>) data.get("userByUsername");
             assertThat(user.get("username")).isEqualTo("integrationuser");
         }
+
+        @Test
+        @DisplayName("should remember unknown usernames until the user registers")
+        void shouldCacheMissingUsernames() {
+            String query = "query { userByUsername(username: \"%s\") { username } }";
+            assertThat(getData(executeGraphQL(query.formatted("Ghost")))).containsEntry("userByUsername", null);
+
+            // Written through the repository, so the tombstone is not removed
+            userRepository.save(new User("ghost", "ghost@test.com", "password123"));
+            assertThat(getData(executeGraphQL(query.formatted("ghost")))).containsEntry("userByUsername", null);
+
+            assertThat(getData(executeGraphQL(query.formatted("newcomer")))).containsEntry("userByUsername", null);
+            executeGraphQL("""
+                mutation { register(input: { username: "newcomer", email: "newcomer@test.com", password: "password123" }) { accessToken } }
+                """);
+            assertThat(getData(executeGraphQL(query.formatted("newcomer"))))
+                .containsEntry("userByUsername", Map.of("username", "newcomer"));
+        }
     }
 
     @Nested
@@ -267,4 +443,430 @@ class GraphQlControllerIntegrationTest {
             assertThat(movie.get("averageRating")).isNull();
         }
     }
+
+    @Nested
+    @DisplayName("Persisted Query Tests")
+    class PersistedQueryTests {
+
+        private static final String QUERY = "query { health { status } }";
+
+        private Map<String, Object> persistedQueryExtension(String hash) {
+            return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+        }
+
+        private String sha256(String query) throws Exception {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Test
+        @DisplayName("should ask for the full query when hash is unknown")
+        @SuppressWarnings("unchecked")
+        void shouldReturnNotFoundForUnknownHash() {
+            Map<String, Object> response = executeRequest(Map.of(
+                "extensions", persistedQueryExtension("0".repeat(64))));
+
+            List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+            assertThat(errors).hasSize(1);
+            assertThat(errors.getFirst().get("message")).isEqualTo("PersistedQueryNotFound");
+        }
+
+        @Test
+        @DisplayName("should execute by hash once the query has been registered")
+        @SuppressWarnings("unchecked")
+        void shouldExecuteRegisteredHash() throws Exception {
+            String hash = sha256(QUERY);
+            executeRequest(Map.of("query", QUERY, "extensions", persistedQueryExtension(hash)));
+
+            Map<String, Object> response = executeRequest(Map.of("extensions", persistedQueryExtension(hash)));
+
+            Map<String, Object> health = (Map<String, Object>) getData(response).get("health");
+            assertThat(health.get("status")).isEqualTo("UP");
+        }
+
+        @Test
+        @DisplayName("should reject a hash that does not match the query")
+        @SuppressWarnings("unchecked")
+        void shouldRejectMismatchedHash() {
+            Map<String, Object> response = executeRequest(Map.of(
+                "query", QUERY, "extensions", persistedQueryExtension("f".repeat(64))));
+
+            List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+            assertThat(errors.getFirst().get("message")).isEqualTo("PersistedQueryIdInvalid");
+        }
+    }
+
+    @Nested
+    @DisplayName("Query Cost Tests")
+    class QueryCostTests {
+
+        @Test
+        @DisplayName("should reject queries with an oversized page before execution")
+        @SuppressWarnings("unchecked")
+        void shouldRejectExpensiveQuery() {
+            Map<String, Object> response = executeGraphQL(
+                "query { movies(size: 100000) { content { id title } } }");
+
+            List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+            assertThat(errors).hasSize(1);
+            assertThat((String) errors.getFirst().get("message")).startsWith("Query cost");
+            assertThat(response.get("data")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Cursor Pagination Tests")
+    class CursorPaginationTests {
+
+        @Test
+        @DisplayName("should continue after the end cursor without gaps or duplicates")
+        @SuppressWarnings("unchecked")
+        void shouldPageWithCursor() {
+            movieRepository.save(new Movie("Second Movie"));
+            movieRepository.save(new Movie("Third Movie"));
+
+            Map<String, Object> firstPage = (Map<String, Object>) getData(executeGraphQL(
+                "query { movies(first: 2) { content { id } pageInfo { hasNextPage endCursor } } }")).get("movies");
+            Map<String, Object> firstInfo = (Map<String, Object>) firstPage.get("pageInfo");
+            assertThat(firstInfo.get("hasNextPage")).isEqualTo(true);
+
+            Map<String, Object> secondPage = (Map<String, Object>) getData(executeGraphQL(
+                "query { movies(first: 2, after: \"%s\") { content { id } pageInfo { hasNextPage hasPreviousPage totalElements } } }"
+                    .formatted(firstInfo.get("endCursor")))).get("movies");
+            Map<String, Object> secondInfo = (Map<String, Object>) secondPage.get("pageInfo");
+            assertThat(secondInfo.get("hasNextPage")).isEqualTo(false);
+            assertThat(secondInfo.get("hasPreviousPage")).isEqualTo(true);
+            assertThat(secondInfo.get("totalElements")).isEqualTo(3);
+
+            List<Object> ids = new ArrayList<>();
+            ((List<Map<String, Object>>) firstPage.get("content")).forEach(movie -> ids.add(movie.get("id")));
+            ((List<Map<String, Object>>) secondPage.get("content")).forEach(movie -> ids.add(movie.get("id")));
+            assertThat(ids).hasSize(3).doesNotHaveDuplicates().contains(testMovie.getId().toString());
+        }
+
+        @Test
+        @DisplayName("should page follows by when the follow happened")
+        @SuppressWarnings("unchecked")
+        void shouldPageFollowingByFollowTime() {
+            User older = userRepository.save(new User("olderaccount", "older@test.com", "password123"));
+            User newer = userRepository.save(new User("neweraccount", "newer@test.com", "password123"));
+            followerRepository.save(new Follower(testUser, newer));
+            followerRepository.save(new Follower(testUser, older));
+
+            Map<String, Object> firstPage = (Map<String, Object>) getData(executeGraphQL(
+                "query { following(userId: %d, first: 1) { content { id } pageInfo { endCursor } } }"
+                    .formatted(testUser.getId()))).get("following");
+            Map<String, Object> firstInfo = (Map<String, Object>) firstPage.get("pageInfo");
+            Map<String, Object> secondPage = (Map<String, Object>) getData(executeGraphQL(
+                "query { following(userId: %d, first: 1, after: \"%s\") { content { id } pageInfo { hasNextPage } } }"
+                    .formatted(testUser.getId(), firstInfo.get("endCursor")))).get("following");
+
+            assertThat((List<Map<String, Object>>) firstPage.get("content"))
+                .extracting(user -> user.get("id")).containsExactly(older.getId().toString());
+            assertThat((List<Map<String, Object>>) secondPage.get("content"))
+                .extracting(user -> user.get("id")).containsExactly(newer.getId().toString());
+            assertThat(((Map<String, Object>) secondPage.get("pageInfo")).get("hasNextPage")).isEqualTo(false);
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            Map<String, Object> response = executeGraphQL(
+                "query { globalFeed(first: 5, after: \"not-a-cursor\") { content { id } } }");
+
+            assertThat(response.get("errors")).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Delivery Tests")
+    class IncrementalDeliveryTests {
+
+        private static final String DEFERRED_QUERY =
+            "query { movie(id: %d) { title ... @defer { averageRating reviewCount } } }";
+
+        @Test
+        @DisplayName("should send deferred fields in a later multipart part")
+        void shouldDeferFieldsOverMultipart() {
+            String body = restClient.post()
+                .uri("/graphql")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT, "multipart/mixed; deferSpec=20220824, application/json")
+                .body(Map.of("query", DEFERRED_QUERY.formatted(testMovie.getId())))
+                .retrieve()
+                .body(String.class);
+
+            String[] parts = body.split("\r\n---\r\n");
+            assertThat(parts).hasSize(3);
+            assertThat(parts[1]).contains("\"title\":\"Integration Test Movie\"", "\"hasNext\":true")
+                .doesNotContain("reviewCount");
+            assertThat(parts[2]).contains("\"incremental\"", "\"reviewCount\":0", "\"hasNext\":false");
+            assertThat(body).endsWith("\r\n-----\r\n");
+        }
+
+        @Test
+        @DisplayName("should resolve deferred fields inline for plain JSON requests")
+        @SuppressWarnings("unchecked")
+        void shouldInlineDeferredFieldsForJson() {
+            Map<String, Object> response = executeGraphQL(DEFERRED_QUERY.formatted(testMovie.getId()));
+
+            Map<String, Object> movie = (Map<String, Object>) getData(response).get("movie");
+            assertThat(movie).containsEntry("title", "Integration Test Movie").containsEntry("reviewCount", 0);
+            assertThat(response).doesNotContainKey("hasNext");
+        }
+    }
+
+    @Nested
+    @DisplayName("Response Cache Tests")
+    class ResponseCacheTests {
+
+        private static final String MOVIE_TITLES = "query { movies(size: 10) { content { title } } }";
+
+        @SuppressWarnings("unchecked")
+        private List<Object> movieTitles() {
+            Map<String, Object> movies = (Map<String, Object>) getData(executeGraphQL(MOVIE_TITLES)).get("movies");
+            return ((List<Map<String, Object>>) movies.get("content")).stream()
+                .map(movie -> movie.get("title"))
+                .toList();
+        }
+
+        @Test
+        @DisplayName("should serve repeated anonymous queries from the cache")
+        void shouldServeRepeatedQueriesFromCache() {
+            assertThat(movieTitles()).containsExactly("Integration Test Movie");
+
+            // Bypasses the services, so nothing purges the cached response
+            movieRepository.save(new Movie("Unannounced Movie"));
+
+            assertThat(movieTitles()).containsExactly("Integration Test Movie");
+        }
+
+        @Test
+        @DisplayName("should purge cached responses when a contained entity changes")
+        void shouldPurgeOnEntityChange() {
+            assertThat(movieTitles()).containsExactly("Integration Test Movie");
+
+            executeGraphQL("mutation { updateMovie(id: %d, input: { title: \"Renamed Movie\" }) { id } }"
+                .formatted(testMovie.getId()));
+
+            assertThat(movieTitles()).containsExactly("Renamed Movie");
+        }
+
+        @Test
+        @DisplayName("should purge cached lists when an entity is created")
+        void shouldPurgeListsOnCreate() {
+            assertThat(movieTitles()).hasSize(1);
+
+            executeGraphQL("mutation { createMovie(input: { title: \"Brand New Movie\" }) { id } }");
+
+            assertThat(movieTitles()).hasSize(2).contains("Brand New Movie");
+        }
+
+        @Test
+        @DisplayName("should not store a response whose entities were purged during execution")
+        void shouldSkipStaleWriteBack() {
+            String movieTag = ResponseTagInstrumentation.entityTag("Movie", testMovie.getId());
+            ResponseCache.Generation generation = responseCache.currentGeneration();
+
+            responseCache.evict(Set.of(movieTag));
+            responseCache.put("stale", Map.of("data", Map.of()), Set.of(movieTag), generation);
+            responseCache.put("fresh", Map.of("data", Map.of()), Set.of(movieTag), responseCache.currentGeneration());
+
+            assertThat(responseCache.get("stale")).isNull();
+            assertThat(responseCache.get("fresh")).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Request Tests")
+    class BatchRequestTests {
+
+        @SuppressWarnings("unchecked")
+        private List<Map<String, Object>> executeBatch(List<Map<String, Object>> operations) {
+            return restClient.post()
+                .uri("/graphql/batch")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(operations)
+                .retrieve()
+                .body(List.class);
+        }
+
+        @Test
+        @DisplayName("should answer each operation of a batch in order")
+        @SuppressWarnings("unchecked")
+        void shouldExecuteOperationsInOrder() {
+            String movieTitle = "query Movie($id: ID!) { movie(id: $id) { title } }";
+            List<Map<String, Object>> results = executeBatch(List.of(
+                Map.of("query", movieTitle, "variables", Map.of("id", testMovie.getId())),
+                Map.of("query", "mutation { updateMovie(id: %d, input: { title: \"Renamed Movie\" }) { id } }"
+                    .formatted(testMovie.getId())),
+                Map.of("query", movieTitle, "variables", Map.of("id", testMovie.getId())),
+                Map.of("query", "{ health { status } }")));
+
+            assertThat(results).hasSize(4);
+            assertThat((Map<String, Object>) getData(results.get(0)).get("movie"))
+                .containsEntry("title", "Integration Test Movie");
+            assertThat((Map<String, Object>) getData(results.get(2)).get("movie"))
+                .containsEntry("title", "Renamed Movie");
+            assertThat(getData(results.get(3))).containsKey("health");
+        }
+
+        @Test
+        @DisplayName("should reject an empty batch")
+        void shouldRejectEmptyBatch() {
+            assertThatThrownBy(() -> executeBatch(List.of()))
+                .isInstanceOf(HttpClientErrorException.BadRequest.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Virtual Thread Execution Tests")
+    @TestPropertySource(properties = "cineconnect.graphql.virtual-threads.enabled=true")
+    class VirtualThreadExecutionTests {
+
+        // This class runs in its own application context, with its own server
+        @LocalServerPort
+        private int virtualThreadPort;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        @DisplayName("should resolve the dashboard of the authenticated user on virtual threads")
+        @SuppressWarnings("unchecked")
+        void shouldResolveDashboardOnVirtualThreads() {
+            RestClient client = RestClient.create("http://localhost:" + virtualThreadPort);
+            Map<String, Object> registered = (Map<String, Object>) ((Map<String, Object>) client.post()
+                .uri("/graphql")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(Map.of("query", "mutation { register(input: { username: \"dashboarduser\", "
+                    + "email: \"dashboard@test.com\", password: \"password123\" }) { accessToken user { id } } }"))
+                .retrieve()
+                .body(Map.class)
+                .get("data")).get("register");
+            User viewer = userRepository.findById(
+                Long.valueOf((String) ((Map<String, Object>) registered.get("user")).get("id"))).orElseThrow();
+            followerRepository.save(new Follower(viewer, testUser));
+            followerRepository.save(new Follower(testUser, viewer));
+
+            Map<String, Object> response = client.post()
+                .uri("/graphql")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + registered.get("accessToken"))
+                .body(Map.of("query", "query { myDashboard { reviewCount followerCount followingCount "
+                    + "watchlistCount hostedPartiesCount } }"))
+                .retrieve()
+                .body(Map.class);
+
+            assertThat(response.get("errors")).isNull();
+            assertThat((Map<String, Object>) getData(response).get("myDashboard"))
+                .containsEntry("reviewCount", 0)
+                .containsEntry("followerCount", 1)
+                .containsEntry("followingCount", 1)
+                .containsEntry("watchlistCount", 0)
+                .containsEntry("hostedPartiesCount", 0);
+            assertThat(meterRegistry.find("graphql.executor.permits.available").gauge()).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscription Tests")
+    class SubscriptionTests {
+
+        @Test
+        @DisplayName("should push the vote tally when a movie is suggested")
+        @SuppressWarnings("unchecked")
+        void shouldPushVoteTally() throws Exception {
+            Long partyId = watchPartyService.createParty(testUser.getId(), "Vote Night", null,
+                Instant.now().plus(Duration.ofDays(1)), null, null, true).getId();
+
+            CompletableFuture<List> tally = ExecutionGraphQlServiceTester.create(graphQlService)
+                .document("subscription { partyVotes(partyId: %d) { voteCount movie { title } } }".formatted(partyId))
+                .executeSubscription()
+                .toFlux("partyVotes", List.class)
+                .filter(votes -> !votes.isEmpty())
+                .next()
+                .toFuture();
+
+            watchPartyService.suggestMovie(partyId, testUser.getId(), testMovie.getId());
+
+            assertThat((List<Map<String, Object>>) tally.get(5, TimeUnit.SECONDS)).singleElement()
+                .satisfies(suggestion -> assertThat(suggestion)
+                    .containsEntry("voteCount", 1)
+                    .containsEntry("movie", Map.of("title", "Integration Test Movie")));
+        }
+
+        @Test
+        @DisplayName("should coalesce a burst of votes pushed over the WebSocket transport")
+        void shouldCoalesceVoteBurstOverWebSocket() throws Exception {
+            int voters = 8;
+            Long partyId = watchPartyService.createParty(testUser.getId(), "Burst Night", null,
+                Instant.now().plus(Duration.ofDays(1)), null, 20, true).getId();
+            watchPartyService.suggestMovie(partyId, testUser.getId(), testMovie.getId());
+            List<Long> voterIds = new ArrayList<>();
+            for (int i = 0; i < voters; i++) {
+                User voter = userRepository.save(new User("voter" + i, "voter" + i + "@test.com", "password123"));
+                watchPartyService.joinParty(partyId, voter.getId());
+                voterIds.add(voter.getId());
+            }
+
+            BlockingQueue<Integer> tallies = new LinkedBlockingQueue<>();
+            WebSocketSession session = subscribeToVoteCounts(partyId, tallies);
+            try {
+                assertThat(tallies.poll(5, TimeUnit.SECONDS)).isEqualTo(1);
+
+                long burstStart = System.nanoTime();
+                for (Long voterId : voterIds) {
+                    watchPartyService.voteForMovie(partyId, voterId, testMovie.getId());
+                }
+                List<Integer> pushed = new ArrayList<>();
+                Integer tally;
+                do {
+                    tally = tallies.poll(5, TimeUnit.SECONDS);
+                    assertThat(tally).as("tally pushed after the burst").isNotNull();
+                    pushed.add(tally);
+                } while (tally != voters + 1);
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - burstStart);
+
+                // max-updates-per-second is 2: at most one push per 500 ms sampling window
+                assertThat(pushed).hasSizeLessThanOrEqualTo((int) (elapsedMillis / 500) + 1)
+                    .hasSizeLessThan(voters)
+                    .isSorted();
+                assertThat(tallies.poll(1, TimeUnit.SECONDS)).isNull();
+            } finally {
+                session.close();
+            }
+        }
+
+        /**
+         * Subscribe to a party's vote count over graphql-transport-ws, queueing the count of
+         * the single suggestion from every {@code next} message.
+         */
+        private WebSocketSession subscribeToVoteCounts(Long partyId, BlockingQueue<Integer> tallies) throws Exception {
+            JsonMapper jsonMapper = JsonMapper.builder().build();
+            String subscribe = jsonMapper.writeValueAsString(Map.of("id", "1", "type", "subscribe",
+                "payload", Map.of("query", "subscription { partyVotes(partyId: %d) { voteCount } }".formatted(partyId))));
+            TextWebSocketHandler handler = new TextWebSocketHandler() {
+                @Override
+                public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                    session.sendMessage(new TextMessage("{\"type\":\"connection_init\"}"));
+                }
+
+                @Override
+                protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+                    JsonNode frame = jsonMapper.readTree(message.getPayload());
+                    switch (frame.path("type").asString()) {
+                        case "connection_ack" -> session.sendMessage(new TextMessage(subscribe));
+                        case "next" -> tallies.add(frame.at("/payload/data/partyVotes/0/voteCount").asInt());
+                        default -> { }
+                    }
+                }
+            };
+            WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+            headers.setSecWebSocketProtocol("graphql-transport-ws");
+            return new StandardWebSocketClient()
+                .execute(handler, headers, URI.create("ws://localhost:" + port + "/graphql"))
+                .get(5, TimeUnit.SECONDS);
+        }
+    }
 }
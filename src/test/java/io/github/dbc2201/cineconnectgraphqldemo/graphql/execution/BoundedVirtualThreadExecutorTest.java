@@ -0,0 +1,50 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the virtual-thread executor used by blocking data fetchers.
+ */
+@DisplayName("Bounded Virtual Thread Executor")
+class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    @DisplayName("should never run more tasks at once than the limit")
+    void shouldLimitConcurrency() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(3)) {
+            for (int i = 0; i < 20; i++) {
+                executor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(maxRunning.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a non-positive limit")
+    void shouldRejectInvalidLimit() {
+        assertThatThrownBy(() -> new BoundedVirtualThreadExecutor(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import io.github.dbc2201.cineconnectgraphqldemo.domain.Movie;
+import io.github.dbc2201.cineconnectgraphqldemo.domain.User;
+import io.github.dbc2201.cineconnectgraphqldemo.service.EntityChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the cross-request entity cache behind the DataLoaders.
+ */
+@DisplayName("Entity Cache")
+class EntityCacheTest {
+
+    private final EntityCache<Movie> cache =
+        new EntityCache<>(Movie.class, 100, Duration.ofMinutes(5), new SimpleMeterRegistry(), "movieLoader");
+
+    private final List<Set<Long>> loadedIds = new ArrayList<>();
+
+    private Map<Long, Movie> load(Set<Long> ids) {
+        loadedIds.add(ids);
+        return ids.stream()
+            .filter(id -> id < 100)
+            .collect(Collectors.toMap(Function.identity(), id -> new Movie("Movie " + id)));
+    }
+
+    @Test
+    @DisplayName("should only load IDs that are not cached yet")
+    void shouldLoadOnlyMisses() {
+        cache.getAll(Set.of(1L, 2L), this::load);
+        Map<Long, Movie> movies = cache.getAll(Set.of(1L, 2L, 3L, 404L), this::load);
+
+        assertThat(movies).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(loadedIds).containsExactly(Set.of(1L, 2L), Set.of(3L, 404L));
+    }
+
+    @Test
+    @DisplayName("should reload an entity after a change event for it")
+    void shouldEvictChangedEntities() {
+        cache.getAll(Set.of(1L, 2L), this::load);
+
+        cache.onEntityChanged(EntityChangedEvent.updated(Movie.class, 1L));
+        cache.onEntityChanged(EntityChangedEvent.updated(User.class, 2L));
+        cache.getAll(Set.of(1L, 2L), this::load);
+
+        assertThat(loadedIds).containsExactly(Set.of(1L, 2L), Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("should not cache a load that overlaps a change event")
+    void shouldNotCacheLoadRacingWithInvalidation() {
+        Map<Long, Movie> movies = cache.getAll(Set.of(1L), ids -> {
+            Map<Long, Movie> loaded = load(ids);
+            cache.onEntityChanged(EntityChangedEvent.updated(Movie.class, 1L));
+            return loaded;
+        });
+        cache.getAll(Set.of(1L), this::load);
+
+        assertThat(movies).containsOnlyKeys(1L);
+        assertThat(loadedIds).containsExactly(Set.of(1L), Set.of(1L));
+    }
+}
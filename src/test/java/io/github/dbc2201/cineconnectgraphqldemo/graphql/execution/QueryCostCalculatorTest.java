@@ -0,0 +1,184 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.execution.QueryCostCalculator.QueryCost;
+import io.github.dbc2201.cineconnectgraphqldemo.graphql.type.PageInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for static query cost calculation and per-client budgets.
+ */
+@DisplayName("Query Cost")
+class QueryCostCalculatorTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+        new SchemaParser().parse("""
+            type Query {
+                user(id: ID!): User
+                followers(userId: ID!, size: Int = 20): UserConnection!
+            }
+            type User {
+                id: ID!
+                username: String!
+                followers(size: Int): UserConnection!
+                genres: [Genre!]!
+            }
+            type Genre {
+                name: String!
+            }
+            type UserConnection {
+                content: [User!]!
+                totalElements: Int!
+            }
+            """),
+        RuntimeWiring.MOCKED_WIRING);
+
+    private final QueryCostCalculator calculator = new QueryCostCalculator(PageInfo.DEFAULT_PAGE_SIZE);
+
+    private QueryCost cost(String query) {
+        return calculator.calculate(SCHEMA, Parser.parse(query), null, CoercedVariables.emptyVariables());
+    }
+
+    @Nested
+    @DisplayName("Calculator")
+    class Calculator {
+
+        @Test
+        @DisplayName("should count each field once for a single object")
+        void shouldCountFieldsOfSingleObject() {
+            QueryCost queryCost = cost("{ user(id: 1) { id username } }");
+
+            assertThat(queryCost.cost()).isEqualTo(3);
+            assertThat(queryCost.depth()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should multiply connection content by the size argument")
+        void shouldMultiplyBySizeArgument() {
+            QueryCost queryCost = cost("{ followers(userId: 1, size: 50) { totalElements content { username } } }");
+
+            // followers + totalElements + content + 50 * username
+            assertThat(queryCost.cost()).isEqualTo(53);
+        }
+
+        @Test
+        @DisplayName("should use schema default size when argument is omitted")
+        void shouldUseSchemaDefaultSize() {
+            QueryCost queryCost = cost("{ followers(userId: 1) { content { username } } }");
+
+            assertThat(queryCost.cost()).isEqualTo(22);
+        }
+
+        @Test
+        @DisplayName("should use default list size for lists without size")
+        void shouldUseDefaultListSize() {
+            QueryCost queryCost = cost("{ user(id: 1) { genres { name } } }");
+
+            assertThat(queryCost.cost()).isEqualTo(22);
+        }
+
+        @Test
+        @DisplayName("should price size-less nested connections at the resolvers' page size")
+        void shouldUseResolverPageSizeForNestedConnections() {
+            QueryCost queryCost = cost(
+                "{ user(id: 1) { followers { content { followers { content { username } } } } } }");
+
+            // user + followers + content + 20 * (followers + content) + 20 * 20 * username
+            assertThat(queryCost.cost()).isEqualTo(1 + 1 + 1 + 20 + 20 + 20 * 20);
+            assertThat(queryCost.depth()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("should compound multipliers of nested lists")
+        void shouldCompoundNestedMultipliers() {
+            QueryCost queryCost = cost(
+                "{ followers(userId: 1, size: 100) { content { followers(size: 100) { content { username } } } } }");
+
+            assertThat(queryCost.cost()).isEqualTo(1 + 1 + 100 + 100 + 100 * 100);
+            assertThat(queryCost.depth()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should saturate instead of overflowing for absurd sizes")
+        void shouldSaturateOnOverflow() {
+            QueryCost queryCost = cost("""
+                { followers(userId: 1, size: 2000000000) { content {
+                    followers(size: 2000000000) { content {
+                      followers(size: 2000000000) { content { username } } } } } } }
+                """);
+
+            assertThat(queryCost.cost()).isEqualTo(Long.MAX_VALUE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Budget")
+    class Budget {
+
+        private final MutableClock clock = new MutableClock();
+        private final QueryCostBudget budget = new QueryCostBudget(100, Duration.ofMinutes(1), clock);
+
+        @Test
+        @DisplayName("should reject once the window budget is spent")
+        void shouldRejectWhenBudgetSpent() {
+            assertThat(budget.tryConsume("user:1", 60)).isTrue();
+            assertThat(budget.tryConsume("user:1", 60)).isFalse();
+            assertThat(budget.tryConsume("user:1", 40)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should track clients independently")
+        void shouldTrackClientsIndependently() {
+            assertThat(budget.tryConsume("user:1", 100)).isTrue();
+            assertThat(budget.tryConsume("user:2", 100)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reset when the window rolls over")
+        void shouldResetAfterWindow() {
+            assertThat(budget.tryConsume("user:1", 100)).isTrue();
+            clock.advance(Duration.ofMinutes(1));
+
+            assertThat(budget.tryConsume("user:1", 100)).isTrue();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
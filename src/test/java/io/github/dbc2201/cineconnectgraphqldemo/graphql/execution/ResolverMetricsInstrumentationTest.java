@@ -0,0 +1,78 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the per-resolver timers and their operation tag.
+ */
+@DisplayName("Resolver Metrics")
+class ResolverMetricsInstrumentationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GraphQL graphQl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("hello", env -> "world"))
+            .build();
+        graphQl = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse("type Query { hello: String }"), wiring))
+            .instrumentation(new ResolverMetricsInstrumentation(meterRegistry, 2))
+            .build();
+    }
+
+    private void execute(String query) {
+        graphQl.execute(ExecutionInput.newExecutionInput(query).build());
+    }
+
+    @Test
+    @DisplayName("should tag operations by name up to the limit")
+    void shouldTagOperationsByName() {
+        execute("query Greeting { hello }");
+        execute("query Farewell { hello }");
+        execute("query Greeting { hello }");
+
+        assertThat(operationTimer("Greeting").count()).isEqualTo(2);
+        assertThat(operationTimer("Farewell").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should tag new operations past the limit as other")
+    void shouldTagOperationsPastLimitAsOther() {
+        execute("query Greeting { hello }");
+        execute("query Farewell { hello }");
+        execute("query Random1 { hello }");
+        execute("query Random2 { hello }");
+        execute("query Greeting { hello }");
+
+        assertThat(operationTimer("Random1")).isNull();
+        assertThat(operationTimer("Random2")).isNull();
+        assertThat(operationTimer(ResolverMetricsInstrumentation.OTHER_OPERATION).count()).isEqualTo(2);
+        assertThat(operationTimer("Greeting").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should tag unnamed operations as anonymous")
+    void shouldTagUnnamedOperationsAsAnonymous() {
+        execute("{ hello }");
+
+        assertThat(operationTimer(ResolverMetricsInstrumentation.ANONYMOUS_OPERATION)).isNotNull();
+    }
+
+    private Timer operationTimer(String operation) {
+        return meterRegistry.find(ResolverMetricsInstrumentation.RESOLVER_TIMER).tag("operation", operation).timer();
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for deciding which operations the response cache may serve.
+ */
+@DisplayName("Response Cache Policy")
+class ResponseCachePolicyTest {
+
+    private final ResponseCachePolicy policy = new ResponseCachePolicy(Set.of("movies", "genres"));
+
+    @Test
+    @DisplayName("should give formatting variants of a query the same key")
+    void shouldNormalizeDocuments() {
+        String compact = "{ movies { content { title } } }";
+        String formatted = """
+            # Home page
+            query {
+                movies {
+                    content { title }
+                }
+            }
+            """;
+
+        assertThat(policy.documentKey(compact, null)).isPresent()
+            .isEqualTo(policy.documentKey(formatted, null));
+    }
+
+    @Test
+    @DisplayName("should only cache queries made of cacheable root fields")
+    void shouldRejectUncacheableOperations() {
+        assertThat(policy.documentKey("{ genres { name } __typename }", null)).isPresent();
+        assertThat(policy.documentKey("{ genres { name } myDashboard { reviewCount } }", null)).isEmpty();
+        assertThat(policy.documentKey("mutation { genres }", null)).isEmpty();
+        assertThat(policy.documentKey("{ genres { name", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should check the operation selected by name")
+    void shouldSelectNamedOperation() {
+        String document = "query Home { movies { content { title } } } query Me { myDashboard { reviewCount } }";
+
+        assertThat(policy.documentKey(document, "Home")).isPresent();
+        assertThat(policy.documentKey(document, "Me")).isEmpty();
+        assertThat(policy.documentKey(document, null)).isEmpty();
+    }
+}
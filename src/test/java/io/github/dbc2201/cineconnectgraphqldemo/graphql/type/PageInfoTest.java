@@ -0,0 +1,47 @@
+package io.github.dbc2201.cineconnectgraphqldemo.graphql.type;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for lazily counted page info.
+ */
+@DisplayName("PageInfo")
+class PageInfoTest {
+
+    @Test
+    @DisplayName("should not count until a total is requested, then count once")
+    void shouldCountLazilyAndOnce() {
+        AtomicInteger counts = new AtomicInteger();
+        PageInfo pageInfo = PageInfo.of(new SliceImpl<>(List.of("a", "b"), PageRequest.of(1, 2), true),
+            false, "cursor", () -> {
+                counts.incrementAndGet();
+                return 5;
+            });
+
+        assertThat(pageInfo.hasNextPage()).isTrue();
+        assertThat(pageInfo.hasPreviousPage()).isTrue();
+        assertThat(counts).hasValue(0);
+
+        assertThat(pageInfo.totalElements()).isEqualTo(5);
+        assertThat(pageInfo.totalPages()).isEqualTo(3);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should report a previous page for slices fetched after a cursor")
+    void shouldHavePreviousPageAfterCursor() {
+        PageInfo pageInfo = PageInfo.of(new SliceImpl<>(List.of("a"), PageRequest.of(0, 2), false),
+            true, "cursor", () -> 1);
+
+        assertThat(pageInfo.hasPreviousPage()).isTrue();
+        assertThat(pageInfo.hasNextPage()).isFalse();
+    }
+}
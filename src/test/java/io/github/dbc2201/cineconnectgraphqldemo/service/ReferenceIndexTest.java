@@ -0,0 +1,48 @@
+package io.github.dbc2201.cineconnectgraphqldemo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the ID-indexed reference data lookup.
+ */
+@DisplayName("Reference Index")
+class ReferenceIndexTest {
+
+    private record Row(int id, String name) {
+    }
+
+    private final ReferenceIndex<Row> index = ReferenceIndex.of(
+        List.of(new Row(3, "Drama"), new Row(1, "Action"), new Row(7, "Comedy")),
+        Row::id, Comparator.comparing(Row::name));
+
+    @Test
+    @DisplayName("should list all rows in display order")
+    void shouldListAllInOrder() {
+        assertThat(index.all()).extracting(Row::name).containsExactly("Action", "Comedy", "Drama");
+    }
+
+    @Test
+    @DisplayName("should resolve IDs in display order regardless of input order")
+    void shouldResolveIdsInOrder() {
+        assertThat(index.resolve(List.of(3, 7, 1))).extracting(Row::name)
+            .containsExactly("Action", "Comedy", "Drama");
+        assertThat(index.resolve(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should skip and report unknown IDs")
+    void shouldSkipUnknownIds() {
+        List<Integer> ids = Arrays.asList(7, 2, 42, null);
+
+        assertThat(index.resolve(ids)).extracting(Row::name).containsExactly("Comedy");
+        assertThat(index.containsAll(ids)).isFalse();
+        assertThat(index.containsAll(List.of(1, 3))).isTrue();
+    }
+}